@@ -0,0 +1,148 @@
+package benchmarks;
+
+import commands.executableCommands.CommandDispatcher;
+import commands.executableCommands.EndProgramCommand;
+import commands.executableCommands.WrappedCommand;
+import commands.jsonReader.BaseOutput;
+import commands.jsonReader.Command;
+import commands.jsonReader.WrappedResultArtist;
+import commands.player.PlaybackClock;
+import engine.EngineContext;
+import fileio.input.ArtistInput;
+import fileio.input.LibraryInput;
+import fileio.input.UserInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import static commands.constants.CommandsConstants.LOAD;
+import static commands.constants.CommandsConstants.SEARCH;
+import static commands.constants.CommandsConstants.SELECT;
+
+/**
+ * Latency of single commands on a generated catalog.
+ *
+ * <p>Every benchmark thread gets its own engine context with a fresh library, in which the first
+ * user searched, selected and loaded a song, so the player commands have something to work on.
+ * The timestamp grows with every call, so the trackbar moves like in a real replay.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandBenchmark {
+    private static final String USERNAME = "user0";
+    private static final String ARTIST = "artist 0";
+    private static final String SEARCHED_NAME = "love";
+
+    @Param({"search", "select", "load", "playPause", "status", "next", "prev", "forward",
+        "backward", "repeat", "shuffle", "like", "showPreferredSongs", "getTop5Songs",
+        "getTop5Playlists", "getTop5Albums", "getTop5Artists", "getOnlineUsers", "getAllUsers",
+        "printCurrentPage", "wrapped"})
+    private String command;
+
+    private EngineContext context;
+    private Command benchmarked;
+    private UserInput user;
+    private ArtistInput artist;
+    private int timestamp;
+
+    /**
+     * Opens the engine context of the thread and prepares the player of the first user.
+     *
+     * @param workload the generated catalog
+     */
+    @Setup(Level.Trial)
+    public void setUp(final WorkloadState workload) {
+        context = EngineContext.open();
+        LibraryInput.setInstance(workload.getCatalog().newLibrary());
+        user = LibraryInput.getInstance().getUserByName(USERNAME);
+
+        CommandDispatcher.dispatch(newCommand(SEARCH));
+        CommandDispatcher.dispatch(newCommand(SELECT));
+        CommandDispatcher.dispatch(newCommand(LOAD));
+
+        Command artistCommand = new Command();
+        artistCommand.setUsername(ARTIST);
+        artist = new ArtistInput(artistCommand);
+
+        benchmarked = newCommand(command);
+    }
+
+    /**
+     * Closes the engine context of the thread.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private Command newCommand(final String name) {
+        Command newCommand = new Command();
+        newCommand.setCommand(name);
+        newCommand.setUsername(USERNAME);
+        newCommand.setTimestamp(++timestamp);
+        newCommand.setType("song");
+        newCommand.setItemNumber(1);
+        newCommand.setDuration(1);
+        newCommand.setSeed(1);
+
+        HashMap<String, Object> filters = new HashMap<>();
+        filters.put("name", SEARCHED_NAME);
+        newCommand.setFilters(filters);
+
+        return newCommand;
+    }
+
+    /**
+     * @return the output of the parameterized command
+     */
+    @Benchmark
+    public BaseOutput executeCommand() {
+        benchmarked.setTimestamp(++timestamp);
+        return CommandDispatcher.dispatch(benchmarked);
+    }
+
+    /**
+     * Advances the trackbar of a playing user, the work done for every user a command touches.
+     *
+     * @return the user whose player was advanced
+     */
+    @Benchmark
+    public UserInput updateAudioTrackbar() {
+        benchmarked.setTimestamp(++timestamp);
+        PlaybackClock.syncPlayer(user, benchmarked);
+        return user;
+    }
+
+    /**
+     * @return the wrapped statistics of the artist of the first songs
+     */
+    @Benchmark
+    public WrappedResultArtist calculateArtistStatistics() {
+        return new WrappedCommand().calculateArtistStatistics(artist);
+    }
+
+    /**
+     * @return the output of the end of the program
+     */
+    @Benchmark
+    public BaseOutput endProgram() {
+        return new EndProgramCommand().executeCommand(null);
+    }
+}
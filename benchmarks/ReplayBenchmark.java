@@ -0,0 +1,56 @@
+package benchmarks;
+
+import main.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end throughput of Main.action on a generated workload, in commands per second. With
+ * the gc profiler, the allocation rate divided by this throughput is the allocation per command.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReplayBenchmark {
+    private File output;
+
+    /**
+     * Creates the file the replay writes to.
+     *
+     * @throws IOException in case of exceptions to writing
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        output = File.createTempFile("replay", ".json");
+        output.deleteOnExit();
+    }
+
+    /**
+     * Replays the whole generated command stream.
+     *
+     * @param workload the generated catalog and commands
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    @Benchmark
+    @OperationsPerInvocation(WorkloadState.REPLAY_COMMANDS)
+    public void replay(final WorkloadState workload) throws IOException {
+        Main.action(workload.getCommandsFile(), workload.getLibraryFile(), output.getPath());
+    }
+}
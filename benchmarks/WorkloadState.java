@@ -0,0 +1,89 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fileio.input.BaseCatalog;
+import main.WorkloadGenerator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * A generated catalog and command stream, shared by all the threads of a benchmark. The sizes
+ * are parameters, so every benchmark which uses this state runs once for every combination.
+ * The workload is written to a temporary directory, away from the inputs of the checker, and
+ * deleted at the end of the trial.
+ */
+@State(Scope.Benchmark)
+public class WorkloadState {
+    public static final int REPLAY_COMMANDS = 100_000;
+    public static final long SEED = 1;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int songs;
+
+    @Param({"1000", "100000", "1000000"})
+    private int users;
+
+    private Path directory;
+    private BaseCatalog catalog;
+
+    /**
+     * Generates the workload and reads its library into a base catalog.
+     *
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        directory = Files.createTempDirectory("workload");
+        WorkloadGenerator.main(new String[] {directory.toString(),
+            "seed=" + SEED, "songs=" + songs, "users=" + users,
+            "commands=" + REPLAY_COMMANDS});
+        catalog = BaseCatalog.load(new ObjectMapper(), getLibraryFile());
+    }
+
+    /**
+     * Deletes the generated workload.
+     *
+     * @throws IOException in case of exceptions to deleting
+     */
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        catalog = null;
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * @return the catalog of the generated library
+     */
+    public BaseCatalog getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * @return the generated library.json
+     */
+    public File getLibraryFile() {
+        return directory.resolve("library").resolve("library.json").toFile();
+    }
+
+    /**
+     * @return the generated command file
+     */
+    public File getCommandsFile() {
+        return directory.resolve("test_generated_" + SEED + ".json").toFile();
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * JMH benchmarks for the command hot paths and for whole replays.
+ *
+ * <p>The benchmarks are compiled together with the sources of the project, with jmh-core and
+ * jmh-generator-annprocess on the class path, and started through the JMH runner, for example
+ * {@code java -jar benchmarks.jar -prof gc}. The gc profiler reports the allocation rate, which
+ * ReplayBenchmark turns into bytes per command. WorkloadState generates the library and the
+ * commands into a temporary directory, so the inputs of the checker are left untouched.
+ */
+package benchmarks;
@@ -61,4 +61,7 @@ public final class CommandsConstants {
     public static final String CANCEL_PREMIUM = "cancelPremium";
     public static final String  AD_BREAK = "adBreak";
 
+    public static final String AUTOCOMPLETE = "autocomplete";
+    public static final String FUZZY_SEARCH = "fuzzySearch";
+
 }
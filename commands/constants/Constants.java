@@ -16,6 +16,7 @@ public final class Constants {
     public static final String ALBUM = "album";
     public static final String HOST = "host";
     public static final String ARTIST = "artist";
+    public static final String ALL = "all";
 
     public static final String USER = "user";
 
@@ -28,7 +28,10 @@ public final class SearchBarEnums {
         GENRE("genre"),
         ARTIST("artist"),
         TAGS("tags"),
-        DESCRIPTION("description");
+        LYRICS_QUERY("lyricsQuery"),
+        DESCRIPTION("description"),
+        NAME("name"),
+        FOLLOWERS("followers");
 
         private final String name;
         FiltersEnum(final String name) {
@@ -3,6 +3,7 @@ package commands.executableCommands;
 import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
 import commands.jsonReader.Output;
+import fileio.input.AccountEntry;
 import fileio.input.AlbumInput;
 import fileio.input.ArtistInput;
 import fileio.input.HostInput;
@@ -38,9 +39,10 @@ public final class AddAlbumCommand implements Executable {
     public BaseOutput executeCommand(final Command command) {
         String message;
         String username = command.getUsername();
-        UserInput user = LibraryInput.getInstance().getUserByName(username);
-        ArtistInput artist = LibraryInput.getInstance().getArtistByName(command.getUsername());
-        HostInput host = LibraryInput.getInstance().getHostByName(command.getUsername());
+        AccountEntry account = LibraryInput.getInstance().getAccountByName(username);
+        UserInput user = account.asUser();
+        ArtistInput artist = account.asArtist();
+        HostInput host = account.asHost();
 
         if (user == null && artist == null && host == null) {
             message = USERNAME + username + NO_EXIST.getName();
@@ -70,9 +72,9 @@ public final class AddAlbumCommand implements Executable {
 
         album.setDateCreated(command.getTimestamp());
 
-        LibraryInput.getInstance().getAlbums().add(album);
+        LibraryInput.getInstance().addAlbum(album);
         for (SongInput song : album.getSongs()) {
-            LibraryInput.getInstance().getSongs().add(song);
+            LibraryInput.getInstance().addSong(song);
         }
 
         artist.notifyObservers(NOTIFICATION_ALBUM + artist.getUsername() + DOT);
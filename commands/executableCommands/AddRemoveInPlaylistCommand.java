@@ -99,13 +99,13 @@ public final class AddRemoveInPlaylistCommand implements Executable {
                   player.getTotalTimestamp(), player.getCurrentShuffleArray());
     }
 
-    if (specifiedPlaylist.getSongs().contains(song)) {
-      specifiedPlaylist.getSongs().remove(song);
+    if (specifiedPlaylist.removeSong(song)) {
       message = PlayerEnums.AddRemoveInPlaylistMessagesEnum.SUCCESS_REMOVE.getName();
     } else {
-      specifiedPlaylist.getSongs().add(song);
+      specifiedPlaylist.addSong(song);
       message = PlayerEnums.AddRemoveInPlaylistMessagesEnum.SUCCESS_ADD.getName();
     }
+    LibraryInput.getInstance().markChanged();
     return message;
   }
 }
@@ -10,8 +10,6 @@ import fileio.input.HostInput;
 import fileio.input.LibraryInput;
 import fileio.input.UserInput;
 
-import java.util.List;
-
 public final class AddUserCommand implements Executable {
 
   /**
@@ -24,52 +22,27 @@ public final class AddUserCommand implements Executable {
    */
   @Override
   public BaseOutput executeCommand(final Command command) {
-    List<ArtistInput> artists = LibraryInput.getInstance().getArtists();
-    List<HostInput> hosts = LibraryInput.getInstance().getHosts();
-    List<UserInput> users = LibraryInput.getInstance().getUsers();
     String username = command.getUsername();
     String message;
 
-    for (ArtistInput artist : artists) {
-      if (artist.getUsername().equals(username)) {
-        message =
-            UserCommandsEnums.USERNAME
-                + username
-                + UserCommandsEnums.AddUserMessagesEnum.TAKEN.getName();
-        return new Output(command, message);
-      }
-    }
-
-    for (HostInput host : hosts) {
-      if (host.getUsername().equals(username)) {
-        message =
-            UserCommandsEnums.USERNAME
-                + username
-                + UserCommandsEnums.AddUserMessagesEnum.TAKEN.getName();
-        return new Output(command, message);
-      }
-    }
-
-    for (UserInput user : users) {
-      if (user.getUsername().equals(username)) {
-        message =
-            UserCommandsEnums.USERNAME
-                + username
-                + UserCommandsEnums.AddUserMessagesEnum.TAKEN.getName();
-        return new Output(command, message);
-      }
+    if (LibraryInput.getInstance().getAccountByName(username).exists()) {
+      message =
+          UserCommandsEnums.USERNAME
+              + username
+              + UserCommandsEnums.AddUserMessagesEnum.TAKEN.getName();
+      return new Output(command, message);
     }
 
     if (command.getType().equals(Constants.USER)) {
       UserInput newUser = new UserInput(command);
       newUser.setPremium(false);
-      LibraryInput.getInstance().getUsers().add(newUser);
+      LibraryInput.getInstance().addUser(newUser);
     } else if (command.getType().equals(Constants.ARTIST)) {
       ArtistInput newArtist = new ArtistInput(command);
-      LibraryInput.getInstance().getArtists().add(newArtist);
+      LibraryInput.getInstance().addArtist(newArtist);
     } else {
       HostInput newHost = new HostInput(command);
-      LibraryInput.getInstance().getHosts().add(newHost);
+      LibraryInput.getInstance().addHost(newHost);
     }
 
     message =
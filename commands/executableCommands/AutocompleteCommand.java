@@ -0,0 +1,90 @@
+package commands.executableCommands;
+
+import commands.constants.Constants;
+import commands.constants.SearchBarEnums;
+import commands.constants.StatusEnums;
+import commands.jsonReader.BaseOutput;
+import commands.jsonReader.Command;
+import commands.jsonReader.GetTop5Output;
+import fileio.input.AlbumInput;
+import fileio.input.ArtistInput;
+import fileio.input.HostInput;
+import fileio.input.LibraryInput;
+import fileio.input.PlaylistInput;
+import fileio.input.PodcastInput;
+import fileio.input.SongInput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+public final class AutocompleteCommand implements Executable {
+
+  /**
+   * The method returns the names starting with the typed prefix for the type of the command,
+   * looked up in the prefix indexes of the library. Songs are ranked by likes, playlists by
+   * followers, albums and artists by the total likes of their songs and hosts by subscribers, and
+   * the best names of every prefix are kept by the indexes, so a short prefix does not rank every
+   * name under it. The names ranked the same, as well as all the podcasts, keep the library order.
+   * Podcasts are walked in library order and the walk stops once the limit is filled. Private
+   * playlists are only suggested to their owner.
+   *
+   * @param command The command which specifies the type, the prefix and the optional limit of
+   *     the suggestions. Without a limit, at most 5 names are returned.
+   * @return A GetTop5Output object containing the suggested names, best first.
+   * @throws IllegalArgumentException If the type of the command is not a searchable type.
+   */
+  @Override
+  public BaseOutput executeCommand(final Command command) {
+    LibraryInput library = LibraryInput.getInstance();
+    String prefix = command.getPrefix() == null ? "" : command.getPrefix();
+    int limit = command.getLimit() == null ? Constants.TOP5 : command.getLimit();
+
+    ArrayList<String> names =
+        switch (command.getType().toLowerCase()) {
+          case Constants.SONG -> names(library.getSongNames().ranked(prefix, limit,
+              song -> true),
+              SongInput::getName);
+
+          case Constants.PLAYLIST -> names(library.getPlaylistNames().ranked(prefix, limit,
+              playlist -> isVisible(playlist, command.getUsername())),
+              PlaylistInput::getName);
+
+          case Constants.ALBUM -> names(library.getAlbumNames().ranked(prefix, limit,
+              album -> true),
+              AlbumInput::getName);
+
+          case Constants.PODCAST -> names(library.getPodcastNames().first(prefix, limit,
+              podcast -> true),
+              PodcastInput::getName);
+
+          case Constants.ARTIST -> names(library.getArtistNames().ranked(prefix, limit,
+              artist -> true),
+              ArtistInput::getUsername);
+
+          case Constants.HOST -> names(library.getHostNames().ranked(prefix, limit,
+              host -> true),
+              HostInput::getUsername);
+
+          default -> throw new IllegalArgumentException(SearchBarEnums.INVALID_SEARCH);
+        };
+
+    return new GetTop5Output(command, names);
+  }
+
+  private static boolean isVisible(final PlaylistInput playlist, final String username) {
+    return playlist.getVisibility().equals(StatusEnums.VisibilityEnum.PUBLIC.getName())
+        || playlist.getOwner().equals(username);
+  }
+
+  private static <T> ArrayList<String> names(
+      final List<T> items, final Function<T, String> name) {
+    ArrayList<String> names = new ArrayList<>(items.size());
+
+    for (T item : items) {
+      names.add(name.apply(item));
+    }
+
+    return names;
+  }
+}
@@ -3,6 +3,7 @@ package commands.executableCommands;
 import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
 import commands.jsonReader.Output;
+import fileio.input.AccountEntry;
 import fileio.input.ArtistInput;
 import fileio.input.HostInput;
 import fileio.input.LibraryInput;
@@ -35,9 +36,10 @@ public class BuyMerchCommand implements Executable {
     public BaseOutput executeCommand(final Command command) {
         String message;
         String username = command.getUsername();
-        UserInput user = LibraryInput.getInstance().getUserByName(username);
-        ArtistInput artist = LibraryInput.getInstance().getArtistByName(command.getUsername());
-        HostInput host = LibraryInput.getInstance().getHostByName(command.getUsername());
+        AccountEntry account = LibraryInput.getInstance().getAccountByName(username);
+        UserInput user = account.asUser();
+        ArtistInput artist = account.asArtist();
+        HostInput host = account.asHost();
 
         if (user == null && artist == null && host == null) {
             message = USERNAME + username + NO_EXIST.getName();
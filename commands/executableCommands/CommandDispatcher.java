@@ -0,0 +1,191 @@
+package commands.executableCommands;
+
+import commands.jsonReader.BaseOutput;
+import commands.jsonReader.Command;
+import engine.EngineContext;
+import metrics.CommandMetrics;
+import metrics.MetricsRegistry;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static commands.constants.CommandsConstants.ADD_ALBUM;
+import static commands.constants.CommandsConstants.ADD_ANNOUNCEMENT;
+import static commands.constants.CommandsConstants.ADD_EVENT;
+import static commands.constants.CommandsConstants.ADD_MERCH;
+import static commands.constants.CommandsConstants.ADD_PODCAST;
+import static commands.constants.CommandsConstants.ADD_REMOVE_IN_PLAYLIST;
+import static commands.constants.CommandsConstants.ADD_USER;
+import static commands.constants.CommandsConstants.AD_BREAK;
+import static commands.constants.CommandsConstants.AUTOCOMPLETE;
+import static commands.constants.CommandsConstants.BACKWARD;
+import static commands.constants.CommandsConstants.BUY_MERCH;
+import static commands.constants.CommandsConstants.BUY_PREMIUM;
+import static commands.constants.CommandsConstants.CANCEL_PREMIUM;
+import static commands.constants.CommandsConstants.CHANGE_PAGE;
+import static commands.constants.CommandsConstants.CREATE_PLAYLIST;
+import static commands.constants.CommandsConstants.DELETE_USER;
+import static commands.constants.CommandsConstants.FOLLOW;
+import static commands.constants.CommandsConstants.FORWARD;
+import static commands.constants.CommandsConstants.FUZZY_SEARCH;
+import static commands.constants.CommandsConstants.GET_ALL_USERS;
+import static commands.constants.CommandsConstants.GET_NOTIFICATIONS;
+import static commands.constants.CommandsConstants.GET_ONLINE_USERS;
+import static commands.constants.CommandsConstants.GET_TOP_5_ALBUMS;
+import static commands.constants.CommandsConstants.GET_TOP_5_ARTISTS;
+import static commands.constants.CommandsConstants.GET_TOP_5_PLAYLISTS;
+import static commands.constants.CommandsConstants.GET_TOP_5_SONGS;
+import static commands.constants.CommandsConstants.LIKE;
+import static commands.constants.CommandsConstants.LOAD;
+import static commands.constants.CommandsConstants.LOAD_RECOMMENDATIONS;
+import static commands.constants.CommandsConstants.NEXT;
+import static commands.constants.CommandsConstants.NEXT_PAGE;
+import static commands.constants.CommandsConstants.PLAY_PAUSE;
+import static commands.constants.CommandsConstants.PREV;
+import static commands.constants.CommandsConstants.PREVIOUS_PAGE;
+import static commands.constants.CommandsConstants.PRINT_CURRENT_PAGE;
+import static commands.constants.CommandsConstants.REMOVE_ALBUM;
+import static commands.constants.CommandsConstants.REMOVE_ANNOUNCEMENT;
+import static commands.constants.CommandsConstants.REMOVE_EVENT;
+import static commands.constants.CommandsConstants.REMOVE_PODCAST;
+import static commands.constants.CommandsConstants.REPEAT;
+import static commands.constants.CommandsConstants.SEARCH;
+import static commands.constants.CommandsConstants.SEE_MERCH;
+import static commands.constants.CommandsConstants.SELECT;
+import static commands.constants.CommandsConstants.SHOW_ALBUMS;
+import static commands.constants.CommandsConstants.SHOW_PLAYLISTS;
+import static commands.constants.CommandsConstants.SHOW_PODCASTS;
+import static commands.constants.CommandsConstants.SHOW_PREFERRED_SONGS;
+import static commands.constants.CommandsConstants.SHUFFLE;
+import static commands.constants.CommandsConstants.STATUS;
+import static commands.constants.CommandsConstants.SUBSCRIBE;
+import static commands.constants.CommandsConstants.SWITCH_CONNECTION_STATUS;
+import static commands.constants.CommandsConstants.SWITCH_VISIBILITY;
+import static commands.constants.CommandsConstants.UPDATE_RECOMMENDATIONS;
+import static commands.constants.CommandsConstants.WRAPPED;
+
+/**
+ * The dispatch table of the commands.
+ *
+ * <p>Every command name from CommandsConstants is mapped once to a single instance of its
+ * Executable. The table is built when the class is initialized and cannot be changed afterwards,
+ * since it is shared by all the threads which replay inputs. New commands are added to the table
+ * instead of the main loop. Every execution is measured in the metrics of the engine context: the
+ * latency, the allocated bytes and the number of executions of every command type.
+ *
+ * <p>The same executable instance serves the commands of every input, on every thread at once, so
+ * an executable must be stateless: all the state it reads or changes has to be reached through the
+ * engine context of the current thread, never kept in its own fields.
+ */
+public final class CommandDispatcher {
+  private static final Map<String, Executable> EXECUTORS = table();
+
+  private static Map<String, Executable> table() {
+    Map<String, Executable> executors = new LinkedHashMap<>();
+
+    executors.put(SELECT, new SelectCommand());
+    executors.put(SEARCH, new SearchCommand());
+    executors.put(LOAD, new LoadCommand());
+    executors.put(PLAY_PAUSE, new PlayPauseCommand());
+    executors.put(REPEAT, new RepeatCommand());
+    executors.put(SHUFFLE, new ShuffleCommand());
+    executors.put(FORWARD, new ForwardCommand());
+    executors.put(BACKWARD, new BackwardCommand());
+    executors.put(LIKE, new LikeCommand());
+    executors.put(NEXT, new NextCommand());
+    executors.put(PREV, new PrevCommand());
+    executors.put(ADD_REMOVE_IN_PLAYLIST, new AddRemoveInPlaylistCommand());
+    executors.put(STATUS, new StatusCommand());
+    executors.put(CREATE_PLAYLIST, new CreatePlaylistCommand());
+    executors.put(SWITCH_VISIBILITY, new SwitchVisibilityCommand());
+    executors.put(FOLLOW, new FollowPlaylistCommand());
+    executors.put(SHOW_PLAYLISTS, new ShowPlaylistsCommand());
+    executors.put(SHOW_PREFERRED_SONGS, new ShowPreferredSongsCommand());
+    executors.put(GET_TOP_5_SONGS, new GetTop5SongsCommand());
+    executors.put(GET_TOP_5_PLAYLISTS, new GetTop5PlaylistsCommand());
+    executors.put(ADD_USER, new AddUserCommand());
+    executors.put(DELETE_USER, new DeleteUserCommand());
+    executors.put(SWITCH_CONNECTION_STATUS, new SwitchConnectionStatusCommand());
+    executors.put(GET_ONLINE_USERS, new GetOnlineUsersCommand());
+    executors.put(ADD_ALBUM, new AddAlbumCommand());
+    executors.put(ADD_MERCH, new AddMerchCommand());
+    executors.put(ADD_EVENT, new AddEventCommand());
+    executors.put(ADD_PODCAST, new AddPodcastCommand());
+    executors.put(ADD_ANNOUNCEMENT, new AddAnnouncementCommand());
+    executors.put(REMOVE_ALBUM, new RemoveAlbumCommand());
+    executors.put(REMOVE_EVENT, new RemoveEventCommand());
+    executors.put(REMOVE_ANNOUNCEMENT, new RemoveAnnouncementCommand());
+    executors.put(REMOVE_PODCAST, new RemovePodcastCommand());
+    executors.put(SHOW_ALBUMS, new ShowAlbumsCommand());
+    executors.put(PRINT_CURRENT_PAGE, new PrintCurrentPageCommand());
+    executors.put(SHOW_PODCASTS, new ShowPodcastsCommand());
+    executors.put(GET_ALL_USERS, new GetAllUsersCommand());
+    executors.put(CHANGE_PAGE, new ChangePageCommand());
+    executors.put(GET_TOP_5_ALBUMS, new GetTop5AlbumsCommand());
+    executors.put(GET_TOP_5_ARTISTS, new GetTop5ArtistsCommand());
+    executors.put(WRAPPED, new WrappedCommand());
+    executors.put(BUY_MERCH, new BuyMerchCommand());
+    executors.put(SEE_MERCH, new SeeMerchCommand());
+    executors.put(PREVIOUS_PAGE, new PreviousPageCommand());
+    executors.put(NEXT_PAGE, new NextPageCommand());
+    executors.put(UPDATE_RECOMMENDATIONS, new UpdateRecommendationsCommand());
+    executors.put(LOAD_RECOMMENDATIONS, new LoadRecommendationsCommand());
+    executors.put(SUBSCRIBE, new SubscribeCommand());
+    executors.put(GET_NOTIFICATIONS, new GetNotificationsCommand());
+    executors.put(BUY_PREMIUM, new BuyPremiumCommand());
+    executors.put(CANCEL_PREMIUM, new CancelPremiumCommand());
+    executors.put(AD_BREAK, new AdBreakCommand());
+    executors.put(AUTOCOMPLETE, new AutocompleteCommand());
+    executors.put(FUZZY_SEARCH, new FuzzySearchCommand());
+
+    return Collections.unmodifiableMap(executors);
+  }
+
+  private CommandDispatcher() {
+  }
+
+  /**
+   * Executes the command with the executable registered under its name and records the
+   * execution in the metrics of the engine context of the current thread.
+   *
+   * @param command The command to be executed.
+   * @return The output of the command, or null if no executable is registered for its name.
+   */
+  public static BaseOutput dispatch(final Command command) {
+    Executable executor = EXECUTORS.get(command.getCommand());
+
+    if (executor == null) {
+      return null;
+    }
+
+    CommandMetrics metrics = EngineContext.current().getMetrics().forCommand(command.getCommand());
+    long allocatedBefore = MetricsRegistry.allocatedBytes();
+    long start = System.nanoTime();
+
+    BaseOutput output = executor.executeCommand(command);
+
+    metrics.recordExecution(
+        System.nanoTime() - start, MetricsRegistry.allocatedBytes() - allocatedBefore);
+    return output;
+  }
+
+  /**
+   * Returns how many times every command type was executed in the engine context of the current
+   * thread.
+   *
+   * @return An unmodifiable map from the command names to their invocation counts, in the order
+   *     in which the commands were registered.
+   */
+  public static Map<String, Long> getInvocationCounts() {
+    MetricsRegistry metrics = EngineContext.current().getMetrics();
+    Map<String, Long> counts = new LinkedHashMap<>();
+
+    for (String name : EXECUTORS.keySet()) {
+      CommandMetrics commandMetrics = metrics.getCommands().get(name);
+      counts.put(name, commandMetrics == null ? 0 : commandMetrics.getCount());
+    }
+
+    return Collections.unmodifiableMap(counts);
+  }
+}
@@ -54,7 +54,7 @@ public final class CreatePlaylistCommand implements Executable {
         playlist.setFollowers(0);
 
         user.getCreatedPlaylists().add(playlist);
-        LibraryInput.getInstance().getPlaylists().add(playlist);
+        LibraryInput.getInstance().addPlaylist(playlist);
       }
 
       return new Output(command, message);
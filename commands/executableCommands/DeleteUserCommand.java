@@ -1,5 +1,8 @@
 package commands.executableCommands;
 
+import static commands.constants.Constants.ARTIST;
+import static commands.constants.Constants.HOST;
+import static commands.constants.Constants.USER;
 import static commands.constants.UserCommandsEnums.DeleteUserMessagesEnum.NO_DELETE;
 import static commands.constants.UserCommandsEnums.DeleteUserMessagesEnum.NO_EXIST;
 import static commands.constants.UserCommandsEnums.DeleteUserMessagesEnum.SUCCESS_DELETE;
@@ -11,6 +14,7 @@ import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
 import commands.jsonReader.Output;
 import commands.player.Player;
+import fileio.input.AccountEntry;
 import fileio.input.AlbumInput;
 import fileio.input.ArtistInput;
 import fileio.input.HostInput;
@@ -18,6 +22,7 @@ import fileio.input.LibraryInput;
 import fileio.input.PlaylistInput;
 import fileio.input.SongInput;
 import fileio.input.UserInput;
+import metrics.events.DeletionEvent;
 
 public final class DeleteUserCommand implements Executable {
 
@@ -39,9 +44,10 @@ public final class DeleteUserCommand implements Executable {
   public BaseOutput executeCommand(final Command command) {
     String message;
     String username = command.getUsername();
-    UserInput normalUser = LibraryInput.getInstance().getUserByName(username);
-    ArtistInput artist = LibraryInput.getInstance().getArtistByName(command.getUsername());
-    HostInput host = LibraryInput.getInstance().getHostByName(command.getUsername());
+    AccountEntry account = LibraryInput.getInstance().getAccountByName(username);
+    UserInput normalUser = account.asUser();
+    ArtistInput artist = account.asArtist();
+    HostInput host = account.asHost();
 
     if (normalUser == null && artist == null && host == null) {
       message = USERNAME + username + NO_EXIST.getName();
@@ -84,15 +90,20 @@ public final class DeleteUserCommand implements Executable {
    * @param normalUser The normal user to delete. This should be an instance of UserInput.
    */
   private static void safeDeleteDataNormalUser(final UserInput normalUser) {
+    DeletionEvent event = new DeletionEvent();
+    event.begin();
+
     for (PlaylistInput playlist : LibraryInput.getInstance().getPlaylists()) {
       if (normalUser.getFollowedPlaylists().contains(playlist)) {
         playlist.setFollowers(playlist.getFollowers() - 1);
+        LibraryInput.getInstance().updatePlaylist(playlist);
       }
     }
 
     for (SongInput song : LibraryInput.getInstance().getSongs()) {
       if (normalUser.getLikedSongs().contains(song)) {
         song.setLikes(song.getLikes() - 1);
+        LibraryInput.getInstance().songLikesChanged(song);
       }
     }
 
@@ -101,10 +112,11 @@ public final class DeleteUserCommand implements Executable {
         user.getFollowedPlaylists().remove(playlist);
       }
 
-      LibraryInput.getInstance().getPlaylists().remove(playlist);
+      LibraryInput.getInstance().removePlaylist(playlist);
     }
 
-    LibraryInput.getInstance().getUsers().remove(normalUser);
+    LibraryInput.getInstance().removeUser(normalUser);
+    commitEvent(event, USER, normalUser.getUsername());
   }
 
   /**
@@ -114,11 +126,14 @@ public final class DeleteUserCommand implements Executable {
    * @param host The host to delete. This should be an instance of HostInput.
    */
   private static void safeDeleteDataHost(final HostInput host) {
+    DeletionEvent event = new DeletionEvent();
+    event.begin();
+
     LibraryInput.getInstance()
-        .getPodcasts()
-        .removeIf(podcast -> podcast.getOwner().equals(host.getUsername()));
+        .removePodcastsIf(podcast -> podcast.getOwner().equals(host.getUsername()));
 
-    LibraryInput.getInstance().getHosts().remove(host);
+    LibraryInput.getInstance().removeHost(host);
+    commitEvent(event, HOST, host.getUsername());
   }
 
   /**
@@ -302,27 +317,29 @@ public final class DeleteUserCommand implements Executable {
    * @param artist The artist to delete. This should be an instance of ArtistInput.
    */
   private static void safeDeleteDataArtist(final ArtistInput artist) {
+    DeletionEvent event = new DeletionEvent();
+    event.begin();
+
     LibraryInput.getInstance()
-        .getAlbums()
-        .removeIf(album -> album.getOwner().equals(artist.getUsername()));
+        .removeAlbumsIf(album -> album.getOwner().equals(artist.getUsername()));
 
     for (PlaylistInput playlist : LibraryInput.getInstance().getPlaylists()) {
-      playlist.getSongs().removeIf(song -> song.getArtist().equals(artist.getUsername()));
+      playlist.removeSongsIf(song -> song.getArtist().equals(artist.getUsername()));
     }
 
     for (AlbumInput album : artist.getArtistAlbums()) {
-      LibraryInput.getInstance().getSongs().removeAll(album.getSongs());
+      LibraryInput.getInstance().removeAllSongs(album.getSongs());
     }
 
     LibraryInput.getInstance()
-        .getSongs()
-        .removeIf(song -> song.getArtist().equals(artist.getUsername()));
+        .removeSongsIf(song -> song.getArtist().equals(artist.getUsername()));
 
     for (UserInput nextUser : LibraryInput.getInstance().getUsers()) {
       nextUser.getLikedSongs().removeIf(song -> song.getArtist().equals(artist.getUsername()));
     }
 
-    LibraryInput.getInstance().getArtists().remove(artist);
+    LibraryInput.getInstance().removeArtist(artist);
+    commitEvent(event, ARTIST, artist.getUsername());
   }
 
   /**
@@ -396,4 +413,19 @@ public final class DeleteUserCommand implements Executable {
     }
     return null;
   }
+
+  /**
+   * The method commits the flight recorder event of a deletion cascade, if the event is enabled.
+   *
+   * @param event The event started before the cascade.
+   * @param kind The kind of the deleted account.
+   * @param name The username of the deleted account.
+   */
+  private static void commitEvent(final DeletionEvent event, final String kind, final String name) {
+    if (event.shouldCommit()) {
+      event.setKind(kind);
+      event.setName(name);
+      event.commit();
+    }
+  }
 }
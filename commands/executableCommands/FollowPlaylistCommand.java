@@ -66,6 +66,7 @@ public final class FollowPlaylistCommand implements Executable {
             if (followedPlaylist.getName().equals(playlistName)) {
               iterator.remove();
               followedPlaylist.setFollowers(followedPlaylist.getFollowers() - 1);
+              LibraryInput.getInstance().updatePlaylist(followedPlaylist);
               message = PlayerEnums.FollowEnum.UNFOLLOW.getName();
               alreadyExists = true;
 
@@ -91,6 +92,7 @@ public final class FollowPlaylistCommand implements Executable {
 
   /**
    * This method allows a user to follow a playlist in the library if it does not belong to him.
+   * Every playlist with the given name is looked up through the playlists index.
    *
    * @param playlistName The name of the playlist that the user wants to follow.
    * @param user The user who wants to follow the playlist.
@@ -99,18 +101,17 @@ public final class FollowPlaylistCommand implements Executable {
   private static String follow(final String playlistName, final UserInput user) {
     String message = null;
 
-    for (PlaylistInput playlist : LibraryInput.getInstance().getPlaylists()) {
-      if (playlist.getName().equals(playlistName)) {
-        if (!playlist.getOwner().equals(user.getUsername())) {
-          user.getFollowedPlaylists().add(playlist);
-          playlist.setFollowers(playlist.getFollowers() + 1);
-          message = PlayerEnums.FollowEnum.FOLLOW.getName();
+    for (PlaylistInput playlist : LibraryInput.getInstance().getPlaylistsByName(playlistName)) {
+      if (!playlist.getOwner().equals(user.getUsername())) {
+        user.getFollowedPlaylists().add(playlist);
+        playlist.setFollowers(playlist.getFollowers() + 1);
+        LibraryInput.getInstance().updatePlaylist(playlist);
+        message = PlayerEnums.FollowEnum.FOLLOW.getName();
 
-          playlist.subscribe(user);
-          playlist.notifyObservers(USER + user.getUsername() + FOLLOW_PLAYLIST + playlistName);
-        } else {
-          message = PlayerEnums.FollowEnum.OWN_PLAYLIST.getName();
-        }
+        playlist.subscribe(user);
+        playlist.notifyObservers(USER + user.getUsername() + FOLLOW_PLAYLIST + playlistName);
+      } else {
+        message = PlayerEnums.FollowEnum.OWN_PLAYLIST.getName();
       }
     }
 
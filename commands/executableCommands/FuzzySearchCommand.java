@@ -0,0 +1,128 @@
+package commands.executableCommands;
+
+import commands.constants.Constants;
+import commands.constants.SearchBarEnums;
+import commands.jsonReader.BaseOutput;
+import commands.jsonReader.Command;
+import commands.jsonReader.GetTop5Output;
+import engine.TopK;
+import fileio.input.ArtistInput;
+import fileio.input.CompiledFilters;
+import fileio.input.LibraryInput;
+import fileio.input.PrefixIndex.Match;
+import fileio.input.SongInput;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public final class FuzzySearchCommand implements Executable {
+  private static final int DEFAULT_EDITS = 1;
+  private static final int MAX_EDITS = 2;
+
+  /**
+   * The method returns the names closest to the name and artist filters of the command, allowing
+   * a few typos. Songs are matched by their name and by their artist, and must match every given
+   * filter; their distance is the sum of the edits of both filters. Artists are matched by their
+   * username, given as the name filter. The closest names come first, then the most liked, then
+   * the library order.
+   *
+   * @param command The command which specifies the type, the filters, the optional maximum number
+   *     of edits per filter (1 by default, at most 2) and the optional limit of the results.
+   *     Without a limit, at most 5 names are returned.
+   * @return A GetTop5Output object containing the found names, closest first.
+   * @throws IllegalArgumentException If the type of the command is not song or artist.
+   */
+  @Override
+  public BaseOutput executeCommand(final Command command) {
+    LibraryInput library = LibraryInput.getInstance();
+    CompiledFilters filters = CompiledFilters.compile(command.getFilters());
+    int maxEdits = command.getMaxEdits() == null ? DEFAULT_EDITS : command.getMaxEdits();
+    int limit = command.getLimit() == null ? Constants.TOP5 : command.getLimit();
+
+    maxEdits = Math.max(0, Math.min(maxEdits, MAX_EDITS));
+
+    ArrayList<String> names =
+        switch (command.getType().toLowerCase()) {
+          case Constants.SONG -> best(songMatches(library, filters, maxEdits), limit,
+              Comparator.comparingInt(SongInput::getLikes).reversed(),
+              SongInput::getName);
+
+          case Constants.ARTIST -> best(filters.getName() == null ? new ArrayList<>()
+                  : library.getArtistNames().withinDistance(filters.getName(), maxEdits),
+              limit,
+              Comparator.comparingInt(ArtistInput::getTotalLikes).reversed(),
+              ArtistInput::getUsername);
+
+          default -> throw new IllegalArgumentException(SearchBarEnums.INVALID_SEARCH);
+        };
+
+    return new GetTop5Output(command, names);
+  }
+
+  /**
+   * Returns the songs within the edit bound of every given filter among the name and the artist,
+   * with the sum of their distances. Without any of the two filters, no song is returned.
+   */
+  private static List<Match<SongInput>> songMatches(
+      final LibraryInput library, final CompiledFilters filters, final int maxEdits) {
+    List<Match<SongInput>> byName = null;
+    List<Match<SongInput>> byArtist = null;
+
+    if (filters.getName() != null) {
+      byName = library.getSongNames().withinDistance(filters.getName(), maxEdits);
+    }
+    if (filters.getArtist() != null) {
+      byArtist = library.getSongArtists().withinDistance(filters.getArtist(), maxEdits);
+    }
+
+    if (byName == null || byArtist == null) {
+      if (byName != null) {
+        return byName;
+      }
+
+      return byArtist == null ? new ArrayList<>() : byArtist;
+    }
+
+    Map<SongInput, Integer> artistDistances = new IdentityHashMap<>();
+    for (Match<SongInput> match : byArtist) {
+      artistDistances.put(match.item(), match.distance());
+    }
+
+    List<Match<SongInput>> matches = new ArrayList<>();
+    for (Match<SongInput> match : byName) {
+      Integer artistDistance = artistDistances.get(match.item());
+
+      if (artistDistance != null) {
+        matches.add(new Match<>(match.item(), match.distance() + artistDistance,
+            match.position()));
+      }
+    }
+
+    return matches;
+  }
+
+  private static <T> ArrayList<String> best(
+      final List<Match<T>> matches,
+      final int limit,
+      final Comparator<T> ranking,
+      final Function<T, String> name) {
+    TopK<Match<T>> best = new TopK<>(limit,
+        Comparator.<Match<T>>comparingInt(Match::distance)
+            .thenComparing(Match::item, ranking));
+
+    for (Match<T> match : matches) {
+      best.offer(match, match.position());
+    }
+
+    ArrayList<String> names = new ArrayList<>();
+    for (Match<T> match : best.toList()) {
+      names.add(name.apply(match.item()));
+    }
+
+    return names;
+  }
+}
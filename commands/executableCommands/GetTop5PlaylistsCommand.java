@@ -4,19 +4,21 @@ import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
 import commands.jsonReader.GetTop5Output;
 import commands.constants.Constants;
+import engine.TopK;
 import fileio.input.LibraryInput;
 import fileio.input.PlaylistInput;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 
 public final class GetTop5PlaylistsCommand implements Executable {
 
   /**
-   * This method retrieves the top 5 playlists from the library. It first gets a list of all
-   * playlists from the library. It then sorts the playlists in descending order by the number of
-   * followers and then by the date created. It adds the names of the top 5 playlists to a list and
-   * returns a GetTop5Output object containing the command and the list of playlist names.
+   * This method retrieves the top 5 playlists from the library. It keeps the 5 playlists with the
+   * most followers in a bounded heap, ties being broken by the date created. It adds the names of
+   * the top 5 playlists to a list and returns a GetTop5Output object containing the command and
+   * the list of playlist names.
    *
    * @param command The command object which specifies the user and current timestamp in order to
    *     identify the current audio file playing.
@@ -24,21 +26,17 @@ public final class GetTop5PlaylistsCommand implements Executable {
    */
   @Override
   public BaseOutput executeCommand(final Command command) {
-    ArrayList<PlaylistInput> top5Playlists =
-        new ArrayList<>(LibraryInput.getInstance().getPlaylists());
+    List<PlaylistInput> top5Playlists =
+        TopK.select(
+            LibraryInput.getInstance().getPlaylists(),
+            Constants.TOP5,
+            Comparator.comparing(PlaylistInput::getFollowers)
+                .reversed()
+                .thenComparing(PlaylistInput::getDateCreated));
     ArrayList<String> playlistNames = new ArrayList<>();
 
-    top5Playlists.sort(
-        Comparator.comparing(PlaylistInput::getFollowers)
-            .reversed()
-            .thenComparing(PlaylistInput::getDateCreated));
-
     for (PlaylistInput playlist : top5Playlists) {
       playlistNames.add(playlist.getName());
-
-      if (playlistNames.size() == Constants.TOP5) {
-        break;
-      }
     }
 
     return new GetTop5Output(command, playlistNames);
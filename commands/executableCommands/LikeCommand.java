@@ -73,10 +73,12 @@ public final class LikeCommand implements Executable {
           message = PlayerEnums.LikeMessagesEnum.SUCCESS_UNLIKE.getName();
           user.getLikedSongs().remove(currentSong);
           currentSong.setLikes(currentSong.getLikes() - 1);
+          LibraryInput.getInstance().songLikesChanged(currentSong);
         } else {
           message = PlayerEnums.LikeMessagesEnum.SUCCESS_LIKE.getName();
           user.getLikedSongs().add(currentSong);
           currentSong.setLikes(currentSong.getLikes() + 1);
+          LibraryInput.getInstance().songLikesChanged(currentSong);
         }
       } else {
         message = PlayerEnums.LikeMessagesEnum.LOAD_ERROR_LIKE.getName();
@@ -1,16 +1,14 @@
 package commands.executableCommands;
 
-import java.util.List;
-
 import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
 import commands.jsonReader.Output;
+import commands.player.PlaybackCursor;
 import commands.player.Player;
 import commands.constants.PlayerEnums;
 import commands.constants.StatusEnums;
 
 import fileio.input.EpisodeInput;
-import fileio.input.PlaylistInput;
 import fileio.input.PodcastInput;
 import fileio.input.UserInput;
 import fileio.input.LibraryInput;
@@ -19,7 +17,6 @@ import fileio.input.SongInput;
 import static commands.constants.Constants.DOT;
 import static commands.constants.UserCommandsEnums.SwitchConnectionStatusMessagesEnum.IS_OFFLINE;
 import static commands.player.TimestampTrack.getSongRemainingTime;
-import static commands.player.TimestampTrack.getShufflePlaylistRemainingTime;
 import static commands.player.TimestampTrack.getPodcastRemainingTime;
 import static commands.player.TimestampTrack.updateAudioTrackbar;
 
@@ -67,32 +64,24 @@ public final class NextCommand implements Executable {
             message = PlayerEnums.NextMessagesEnum.SUCCESS_NEXT.getName() + trackName + DOT;
           }
         } else if (player.getLoadedPlaylist() != null) {
-          PlaylistInput loadedPlaylist = player.getLoadedPlaylist();
-          Integer totalTimestamp = player.getTotalTimestamp();
-          List<Integer> currentArray = player.getCurrentShuffleArray();
-
-          SongInput currentSong =
-              loadedPlaylist.getShuffleCurrentPlayingSong(totalTimestamp, currentArray);
-
-          Integer songFinishedTimestamp =
-              player.getTotalTimestamp() + getShufflePlaylistRemainingTime(player);
-          Integer totalDurations = loadedPlaylist.getSummedDurationsPlaylist();
-          assert currentSong != null;
-          int elapsedTime = currentSong.getDuration() - getShufflePlaylistRemainingTime(player);
+          PlaybackCursor cursor = PlaybackCursor.of(user);
+          Integer songFinishedTimestamp = cursor.getSongFinishedTimestamp();
+          Integer totalDurations = cursor.getPlaylist().getSummedDurationsPlaylist();
+          assert cursor.getSong() != null;
 
           if (player.getRepeatStatus() == StatusEnums.RepeatPlaylistEnum.NO_REPEAT.ordinal()) {
             if (songFinishedTimestamp >= totalDurations) {
               return unLoad(command, player);
             } else {
-              trackName = noRepeatPlaylistNext(player);
+              trackName = noRepeatPlaylistNext(user, cursor);
             }
 
           } else if (player.getRepeatStatus()
               == StatusEnums.RepeatPlaylistEnum.REPEAT_ALL.ordinal()) {
-            trackName = repeatAllPlaylistNext(songFinishedTimestamp, player);
+            trackName = repeatAllPlaylistNext(user, cursor);
           } else if (player.getRepeatStatus()
               == StatusEnums.RepeatPlaylistEnum.REPEAT_CURRENT_SONG.ordinal()) {
-            trackName = repeatCurrentSongPlaylistNext(player, elapsedTime);
+            trackName = repeatCurrentSongPlaylistNext(user, cursor);
           }
           message = PlayerEnums.NextMessagesEnum.SUCCESS_NEXT.getName() + trackName + DOT;
         } else {
@@ -156,17 +145,16 @@ public final class NextCommand implements Executable {
    * This method handles the case where the current song in the playlist is to be repeated,
    * therefore tne next song is actually itself, but the timestamp must be updated too.
    *
-   * @param player The Player object.
-   * @param elapsedTime The elapsed time.
+   * @param user The user whose player is moved.
+   * @param cursor The current position of the player.
    * @return The name of the next song.
    */
-  private static String repeatCurrentSongPlaylistNext(final Player player, final int elapsedTime) {
+  private static String repeatCurrentSongPlaylistNext(
+      final UserInput user, final PlaybackCursor cursor) {
     String trackName;
-    player.setTotalTimestamp(player.getTotalTimestamp() - elapsedTime);
-    PlaylistInput loadedPlaylist = player.getLoadedPlaylist();
-    Integer totalTimestamp = player.getTotalTimestamp();
-    List<Integer> currentArray = player.getCurrentShuffleArray();
-    SongInput nextSong = loadedPlaylist.getShuffleCurrentPlayingSong(totalTimestamp, currentArray);
+    int elapsedTime = cursor.getElapsedTime();
+    SongInput nextSong =
+        PlaybackCursor.moveTo(user, cursor.getTotalTimestamp() - elapsedTime).getSong();
 
     assert nextSong != null;
     trackName = nextSong.getName();
@@ -179,23 +167,18 @@ public final class NextCommand implements Executable {
    * next song. The last song represents an edge case, because REPEAT_ALL means that the playlist
    * has a circular structure and playlist should eb played again after finishing all songs.
    *
-   * @param songFinishedTimestamp The timestamp when the song finished.
-   * @param player The Player object.
+   * @param user The user whose player is moved.
+   * @param cursor The current position of the player.
    * @return The name of the next song.
    */
-  private static String repeatAllPlaylistNext(
-      final Integer songFinishedTimestamp, final Player player) {
+  private static String repeatAllPlaylistNext(final UserInput user, final PlaybackCursor cursor) {
     String trackName;
-    PlaylistInput loadedPlaylist = player.getLoadedPlaylist();
-    List<Integer> currentArray = player.getCurrentShuffleArray();
-    int remainingTime = getShufflePlaylistRemainingTime(player);
+    int songFinishedTimestamp = cursor.getSongFinishedTimestamp();
 
-    if (songFinishedTimestamp.equals(loadedPlaylist.getSummedDurationsPlaylist())) {
-      trackName = circularLoopPlaylist(player);
+    if (songFinishedTimestamp == cursor.getPlaylist().getSummedDurationsPlaylist()) {
+      trackName = circularLoopPlaylist(user.getPlayer());
     } else {
-      player.setTotalTimestamp(player.getTotalTimestamp() + remainingTime);
-      SongInput nextSong =
-          loadedPlaylist.getShuffleCurrentPlayingSong(player.getTotalTimestamp(), currentArray);
+      SongInput nextSong = PlaybackCursor.moveTo(user, songFinishedTimestamp).getSong();
       assert nextSong != null;
       trackName = nextSong.getName();
     }
@@ -207,17 +190,13 @@ public final class NextCommand implements Executable {
    * This method handles the case where there is no repeat for the playlist, therefore it gets the
    * next song in playlist.
    *
-   * @param player The Player object.
+   * @param user The user whose player is moved.
+   * @param cursor The current position of the player.
    * @return The name of the next song.
    */
-  private static String noRepeatPlaylistNext(final Player player) {
+  private static String noRepeatPlaylistNext(final UserInput user, final PlaybackCursor cursor) {
     String trackName;
-    PlaylistInput loadedPlaylist = player.getLoadedPlaylist();
-    List<Integer> currentArray = player.getCurrentShuffleArray();
-
-    player.setTotalTimestamp(player.getTotalTimestamp() + getShufflePlaylistRemainingTime(player));
-    SongInput nextSong =
-        loadedPlaylist.getShuffleCurrentPlayingSong(player.getTotalTimestamp(), currentArray);
+    SongInput nextSong = PlaybackCursor.moveTo(user, cursor.getSongFinishedTimestamp()).getSong();
 
     assert nextSong != null;
     trackName = nextSong.getName();
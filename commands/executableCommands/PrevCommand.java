@@ -3,25 +3,22 @@ package commands.executableCommands;
 import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
 import commands.jsonReader.Output;
+import commands.player.PlaybackCursor;
 import commands.player.Player;
 import commands.constants.PlayerEnums;
 import commands.constants.StatusEnums;
 
 import fileio.input.EpisodeInput;
-import fileio.input.PlaylistInput;
 import fileio.input.PodcastInput;
 import fileio.input.UserInput;
 import fileio.input.LibraryInput;
 import fileio.input.SongInput;
 
-import java.util.List;
-
 import static commands.constants.Constants.DOT;
 import static commands.constants.UserCommandsEnums.SwitchConnectionStatusMessagesEnum.IS_OFFLINE;
 import static commands.player.TimestampTrack.updateAudioTrackbar;
 import static commands.player.TimestampTrack.getSongRemainingTime;
 import static commands.player.TimestampTrack.getPodcastRemainingTime;
-import static commands.player.TimestampTrack.getShufflePlaylistRemainingTime;
 
 public final class PrevCommand implements Executable {
 
@@ -62,22 +59,14 @@ public final class PrevCommand implements Executable {
           player.setTotalTimestamp(
               player.getTotalTimestamp() - loadedSong.getDuration() - remainingTime);
         } else if (player.getLoadedPlaylist() != null) {
-          PlaylistInput loadedPlaylist = player.getLoadedPlaylist();
-          Integer totalTimestamp = player.getTotalTimestamp();
-          List<Integer> currentArray = player.getCurrentShuffleArray();
-
-          SongInput currentSong =
-              loadedPlaylist.getShuffleCurrentPlayingSong(totalTimestamp, currentArray);
-          assert currentSong != null;
-          int elapsedTime = currentSong.getDuration() - getShufflePlaylistRemainingTime(player);
+          PlaybackCursor cursor = PlaybackCursor.of(user);
+          assert cursor.getSong() != null;
+          int elapsedTime = cursor.getElapsedTime();
 
           if (player.getRepeatStatus() == StatusEnums.RepeatPlaylistEnum.NO_REPEAT.ordinal()) {
-            trackName = noRepeatPlaylist(player, currentSong, elapsedTime);
-          } else if (player.getRepeatStatus()
-              == StatusEnums.RepeatPlaylistEnum.REPEAT_CURRENT_SONG.ordinal()) {
-            trackName = repeatCurrentSongPlaylist(elapsedTime, player);
+            trackName = noRepeatPlaylist(user, cursor, elapsedTime);
           } else {
-            trackName = repeatAllPlaylist(elapsedTime, player);
+            trackName = rewindPlaylist(user, cursor, elapsedTime);
           }
           message = PlayerEnums.PrevMessagesEnum.SUCCESS_PREV.getName() + trackName + DOT;
         } else {
@@ -142,139 +131,50 @@ public final class PrevCommand implements Executable {
   }
 
   /**
-   * The method first checks if the elapsed time is less than 1. If it is, it adjusts the total
-   * timestamp, determines the previous song, sets the total timestamp to the total duration of
-   * played songs, and sets the track name to the previous song's name. If the elapsed time is not
-   * less than 1, it adjusts the total timestamp, determines the previous song, sets the total
-   * timestamp to the total duration of played songs, and sets the track name to the previous song's
-   * name.
-   *
-   * @param elapsedTime The elapsed time since the last track change.
-   * @param player The player that is playing the playlist.
-   * @return A string representing the name of the track.
-   */
-  private static String repeatAllPlaylist(final int elapsedTime, final Player player) {
-    String trackName;
-    PlaylistInput loadedPlaylist = player.getLoadedPlaylist();
-    List<Integer> currentArray = player.getCurrentShuffleArray();
-
-    if (elapsedTime < 1) {
-      player.setTotalTimestamp(player.getTotalTimestamp() - 1);
-      SongInput prevSong =
-          loadedPlaylist.getShuffleCurrentPlayingSong(player.getTotalTimestamp(), currentArray);
-      assert prevSong != null;
-      trackName = prevSong.getName();
-      player.setTotalTimestamp(
-          loadedPlaylist.getShufflePlayedSongsTotalDuration(
-              player.getTotalTimestamp(), currentArray));
-    } else {
-
-      player.setTotalTimestamp(player.getTotalTimestamp() - elapsedTime);
-      SongInput prevSong =
-          loadedPlaylist.getShuffleCurrentPlayingSong(player.getTotalTimestamp(), currentArray);
-      player.setTotalTimestamp(
-          loadedPlaylist.getShufflePlayedSongsTotalDuration(
-              player.getTotalTimestamp(), currentArray));
-      assert prevSong != null;
-      trackName = prevSong.getName();
-    }
-    return trackName;
-  }
-
-  /**
-   * The method first checks if the elapsed time is less than 1. If it is, it adjusts the total
-   * timestamp, determines the previous song, sets the total timestamp to the total duration of
-   * played songs, and sets the track name to the previous song's name. If the elapsed time is not
-   * less than 1, it adjusts the total timestamp, determines the previous song, sets the total
-   * timestamp to the total duration of played songs, and sets the track name to the previous song's
-   * name. Finally, it returns the track name.
+   * The method first checks if the elapsed time is less than 1. If it is, it moves the player 1
+   * second back, into the previous song. Otherwise, it moves the player back by the elapsed time,
+   * to the start of the current song. It determines the song at that moment, sets the total
+   * timestamp to the total duration of played songs before it, and returns its name. Both moves
+   * take a single lookup in the timeline of the playlist.
    *
+   * @param user The user whose player is playing the playlist.
+   * @param cursor The current position of the player.
    * @param elapsedTime The elapsed time since the last track change.
-   * @param player The player that is playing the playlist.
    * @return A string representing the name of the track.
    */
-  private static String repeatCurrentSongPlaylist(final int elapsedTime, final Player player) {
-    String trackName;
-    PlaylistInput loadedPlaylist = player.getLoadedPlaylist();
-    List<Integer> currentArray = player.getCurrentShuffleArray();
+  private static String rewindPlaylist(
+      final UserInput user, final PlaybackCursor cursor, final int elapsedTime) {
+    PlaybackCursor prev =
+        PlaybackCursor.moveTo(user, cursor.getTotalTimestamp() - Math.max(elapsedTime, 1));
+    SongInput prevSong = prev.getSong();
 
-    if (elapsedTime < 1) {
-      player.setTotalTimestamp(player.getTotalTimestamp() - 1);
-      SongInput prevSong =
-          loadedPlaylist.getShuffleCurrentPlayingSong(player.getTotalTimestamp(), currentArray);
-      assert prevSong != null;
-      trackName = prevSong.getName();
-      player.setTotalTimestamp(
-          loadedPlaylist.getShufflePlayedSongsTotalDuration(
-              player.getTotalTimestamp(), currentArray));
-    } else {
-      player.setTotalTimestamp(player.getTotalTimestamp() - elapsedTime);
-      SongInput prevSong =
-          loadedPlaylist.getShuffleCurrentPlayingSong(player.getTotalTimestamp(), currentArray);
-      player.setTotalTimestamp(
-          loadedPlaylist.getShufflePlayedSongsTotalDuration(
-              player.getTotalTimestamp(), currentArray));
+    PlaybackCursor.moveTo(user, prev.getStart());
+    assert prevSong != null;
 
-      assert prevSong != null;
-      trackName = prevSong.getName();
-    }
-    return trackName;
+    return prevSong.getName();
   }
 
   /**
    * The method first checks if the current song is the first song in the playlist. If it is,it
    * adjusts the total timestamp and sets the track name to the current song's name. Otherwise, it
-   * checks if the elapsed time is less than 1. If it is, it adjusts the total timestamp, determines
-   * the previous song, sets the total timestamp to the total duration of played songs, and sets the
-   * track name to the previous song's name. If the elapsed time is not less than 1, it adjusts the
-   * total timestamp, determines the previous song, sets the total timestamp to the total duration
-   * of played songs, and sets the track name to the previous song's name.
+   * moves the player to the start of the current song, or to the start of the previous song if
+   * less than 1 second of the current song has played.
    *
-   * @param player The player that is playing the playlist.
-   * @param currentSong The current song being played in the playlist.
+   * @param user The user whose player is playing the playlist.
+   * @param cursor The current position of the player.
    * @param elapsedTime The elapsed time since the last track change.
    * @return A string representing the name of the track.
    */
   private static String noRepeatPlaylist(
-      final Player player, final SongInput currentSong, final int elapsedTime) {
-    String trackName;
-    PlaylistInput loadedPlaylist = player.getLoadedPlaylist();
-    List<Integer> currentArray = player.getCurrentShuffleArray();
-    SongInput firstShuffledSong =
-        loadedPlaylist.getSongs().get(player.getCurrentShuffleArray().get(0));
+      final UserInput user, final PlaybackCursor cursor, final int elapsedTime) {
+    SongInput currentSong = cursor.getSong();
+    SongInput firstShuffledSong = cursor.getPlaylist().getSongs().get(cursor.getOrder().get(0));
 
     if (firstShuffledSong.getName().equals(currentSong.getName())) {
-      trackName = currentSong.getName();
-      player.setTotalTimestamp(player.getTotalTimestamp() - elapsedTime);
-    } else {
-      if (elapsedTime < 1) {
-        player.setTotalTimestamp(player.getTotalTimestamp() - 1);
-
-        SongInput prevSong =
-            loadedPlaylist.getShuffleCurrentPlayingSong(player.getTotalTimestamp(), currentArray);
-        assert prevSong != null;
-        trackName = prevSong.getName();
-
-        Integer totalDuration =
-            loadedPlaylist.getShufflePlayedSongsTotalDuration(
-                player.getTotalTimestamp(), currentArray);
-
-        player.setTotalTimestamp(totalDuration);
-      } else {
-        player.setTotalTimestamp(player.getTotalTimestamp() - elapsedTime);
-
-        SongInput prevSong =
-            loadedPlaylist.getShuffleCurrentPlayingSong(player.getTotalTimestamp(), currentArray);
-        assert prevSong != null;
-        trackName = prevSong.getName();
-
-        Integer totalDuration =
-            loadedPlaylist.getShufflePlayedSongsTotalDuration(
-                player.getTotalTimestamp(), currentArray);
-        player.setTotalTimestamp(totalDuration);
-      }
+      PlaybackCursor.moveTo(user, cursor.getTotalTimestamp() - elapsedTime);
+      return currentSong.getName();
     }
 
-    return trackName;
+    return rewindPlaylist(user, cursor, elapsedTime);
   }
 }
@@ -4,6 +4,7 @@ import static commands.constants.ArtistCommandsEnums.AddAlbumMessagesEnum.NOT_AR
 import static commands.constants.ArtistCommandsEnums.DeleteAlbumMessagesEnum.NO_ALBUM;
 import static commands.constants.ArtistCommandsEnums.DeleteAlbumMessagesEnum.NO_DELETE;
 import static commands.constants.ArtistCommandsEnums.DeleteAlbumMessagesEnum.SUCCESS_DELETE_ALBUM;
+import static commands.constants.Constants.ALBUM;
 import static commands.constants.UserCommandsEnums.DeleteUserMessagesEnum.NO_EXIST;
 import static commands.constants.UserCommandsEnums.USERNAME;
 import static commands.player.TimestampTrack.updateAudioTrackbar;
@@ -12,6 +13,7 @@ import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
 import commands.jsonReader.Output;
 import commands.player.Player;
+import fileio.input.AccountEntry;
 import fileio.input.AlbumInput;
 import fileio.input.ArtistInput;
 import fileio.input.HostInput;
@@ -19,6 +21,7 @@ import fileio.input.LibraryInput;
 import fileio.input.PlaylistInput;
 import fileio.input.SongInput;
 import fileio.input.UserInput;
+import metrics.events.DeletionEvent;
 
 public final class RemoveAlbumCommand implements Executable {
 
@@ -26,9 +29,10 @@ public final class RemoveAlbumCommand implements Executable {
   public BaseOutput executeCommand(final Command command) {
     String message;
     String username = command.getUsername();
-    UserInput user = LibraryInput.getInstance().getUserByName(username);
-    ArtistInput artist = LibraryInput.getInstance().getArtistByName(command.getUsername());
-    HostInput host = LibraryInput.getInstance().getHostByName(command.getUsername());
+    AccountEntry account = LibraryInput.getInstance().getAccountByName(username);
+    UserInput user = account.asUser();
+    ArtistInput artist = account.asArtist();
+    HostInput host = account.asHost();
 
     if (user == null && artist == null && host == null) {
       message = USERNAME + username + NO_EXIST.getName();
@@ -135,11 +139,20 @@ public final class RemoveAlbumCommand implements Executable {
    * @param artist The artist who owns the album. This should be an instance of ArtistInput.
    */
   private static void safeRemoveDataAlbum(final AlbumInput album, final ArtistInput artist) {
+    DeletionEvent event = new DeletionEvent();
+    event.begin();
+
     for (SongInput song : album.getSongs()) {
-      LibraryInput.getInstance().getSongs().remove(song);
+      LibraryInput.getInstance().removeSong(song);
     }
 
     artist.getArtistAlbums().remove(album);
-    LibraryInput.getInstance().getAlbums().remove(album);
+    LibraryInput.getInstance().removeAlbum(album);
+
+    if (event.shouldCommit()) {
+      event.setKind(ALBUM);
+      event.setName(album.getName());
+      event.commit();
+    }
   }
 }
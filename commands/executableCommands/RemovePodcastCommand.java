@@ -3,15 +3,19 @@ package commands.executableCommands;
 import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
 import commands.jsonReader.Output;
+import commands.player.PlaybackClock;
 import commands.player.Player;
+import fileio.input.AccountEntry;
 import fileio.input.ArtistInput;
 import fileio.input.HostInput;
 import fileio.input.LibraryInput;
 import fileio.input.PodcastInput;
 import fileio.input.UserInput;
+import metrics.events.DeletionEvent;
 
 import java.util.List;
 
+import static commands.constants.Constants.PODCAST;
 import static commands.constants.HostCommandsEnums.AddAPodcastMessagesEnum.NOT_HOST;
 import static commands.constants.HostCommandsEnums.RemovePodcastMessagesEnum.NO_DELETE;
 import static commands.constants.HostCommandsEnums.RemovePodcastMessagesEnum.NO_PODCAST;
@@ -41,9 +45,10 @@ public final class RemovePodcastCommand implements Executable {
   public BaseOutput executeCommand(final Command command) {
     String message;
     String username = command.getUsername();
-    UserInput user = LibraryInput.getInstance().getUserByName(username);
-    ArtistInput artist = LibraryInput.getInstance().getArtistByName(command.getUsername());
-    HostInput host = LibraryInput.getInstance().getHostByName(command.getUsername());
+    AccountEntry account = LibraryInput.getInstance().getAccountByName(username);
+    UserInput user = account.asUser();
+    ArtistInput artist = account.asArtist();
+    HostInput host = account.asHost();
 
     if (user == null && artist == null && host == null) {
       message = USERNAME + username + NO_EXIST.getName();
@@ -74,6 +79,7 @@ public final class RemovePodcastCommand implements Executable {
       return new Output(command, message);
     }
 
+    PlaybackClock.syncAllPlayers(command);
     for (UserInput currentUser : LibraryInput.getInstance().getUsers()) {
       if (currentUser != null && currentUser.getPlayer().getLoadedPodcast() != null) {
         message = username + NO_DELETE.getName();
@@ -81,8 +87,18 @@ public final class RemovePodcastCommand implements Executable {
       }
     }
 
+    DeletionEvent event = new DeletionEvent();
+    event.begin();
+
     podcasts.remove(podcast);
-    LibraryInput.getInstance().getPodcasts().remove(podcast);
+    LibraryInput.getInstance().removePodcast(podcast);
+
+    if (event.shouldCommit()) {
+      event.setKind(PODCAST);
+      event.setName(podcast.getName());
+      event.commit();
+    }
+
     message = username + SUCCESS_DELETE_PODCAST.getName();
     return new Output(command, message);
   }
@@ -8,10 +8,18 @@ import commands.searchBar.SearchBar;
 import commands.constants.Constants;
 import commands.constants.SearchBarEnums;
 import commands.constants.StatusEnums;
+import engine.EngineContext;
+import engine.SearchCache;
+import fileio.input.CompiledFilters;
 import fileio.input.LibraryInput;
+import fileio.input.PodcastInput;
+import fileio.input.SongInput;
+import fileio.input.UniversalSearch;
 import fileio.input.UserInput;
+import metrics.events.SearchEvent;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import static commands.constants.UserCommandsEnums.SwitchConnectionStatusMessagesEnum.IS_OFFLINE;
 import static commands.player.PlayerHelperFunctions.saveTotalTimestampPodcast;
@@ -54,31 +62,36 @@ public final class SearchCommand implements Executable {
         return null;
       }
 
-      Output result =
-          switch (command.getType().toLowerCase()) {
-            case Constants.SONG -> searchBar
-                .getSearchType()
-                .searchMelody(LibraryInput.getInstance().getSongs(), command);
+      SearchEvent event = new SearchEvent();
+      event.begin();
 
-            case Constants.PODCAST -> searchBar
-                .getSearchType()
-                .searchPodcast(LibraryInput.getInstance().getPodcasts(), command);
+      CompiledFilters filters = CompiledFilters.compile(command.getFilters());
+      Output result;
+      boolean cached = false;
 
-            case Constants.PLAYLIST -> searchBar.getSearchType().searchPlaylist(command);
-
-            case Constants.ALBUM -> searchBar.getSearchType().searchAlbum(command);
-
-            case Constants.ARTIST -> searchBar.getSearchType().searchArtists(command);
-            case Constants.HOST -> searchBar.getSearchType().searchHosts(command);
-
-            default -> throw new IllegalArgumentException(SearchBarEnums.INVALID_SEARCH);
-          };
+      if (command.getType().equalsIgnoreCase(Constants.ALL)) {
+        result = searchAll(user, command, filters, event);
+      } else {
+        SearchCache cache = EngineContext.current().getSearchCache();
+        result = cache.lookup(command, filters, LibraryInput.getInstance().getVersion());
+        cached = result != null;
+
+        if (!cached) {
+          result = search(searchBar, command, filters, event);
+          cache.store(command, filters, result);
+        }
+      }
 
-      if (result != null) {
-        result.setType(command.getType());
-        searchBar.setSearchResult(result);
+      if (event.shouldCommit()) {
+        event.setUsername(user.getUsername());
+        event.setType(command.getType());
+        event.setResults(result == null ? 0 : result.getResults().size());
+        event.setCached(cached);
+        event.commit();
       }
 
+      showResult(searchBar, command, result);
+
       if (user.getPlayer().getLoadedPodcast() != null) {
         updatePodcastTrackbar(command, user.getPlayer(), user.getUsername());
         saveTotalTimestampPodcast(user.getPlayer());
@@ -95,4 +108,130 @@ public final class SearchCommand implements Executable {
     message = command.getUsername() + IS_OFFLINE.getName();
     return new Output(command, message);
   }
+
+  /**
+   * Stores the result of a search in the search bar of the user, where the select command reads
+   * it. The result and its type are the only search bar state read after a search, so a cached
+   * result, which skips the scan of the search bar, leaves the search bar as a new search would.
+   *
+   * @param searchBar The search bar of the user.
+   * @param command The search command.
+   * @param result The output of the search, cached or not. A null output is not stored.
+   */
+  private static void showResult(
+      final SearchBar searchBar, final Command command, final Output result) {
+    if (result == null) {
+      return;
+    }
+
+    result.setType(command.getType());
+    searchBar.setSearchResult(result);
+  }
+
+  /**
+   * Runs the search of the command with the search bar of the user. Song and podcast searches only
+   * get the candidates left by the indexes of the library and the compiled filters. The number of
+   * entries the search bar checks is recorded in the event.
+   *
+   * @param searchBar The search bar of the user.
+   * @param command The search command.
+   * @param filters The compiled filters of the command.
+   * @param event The flight recorder event of the search.
+   * @return The output of the search.
+   * @throws IllegalArgumentException If the type of the command is not a searchable type.
+   */
+  private static Output search(
+      final SearchBar searchBar,
+      final Command command,
+      final CompiledFilters filters,
+      final SearchEvent event) {
+    LibraryInput library = LibraryInput.getInstance();
+
+    return switch (command.getType().toLowerCase()) {
+      case Constants.SONG -> {
+        List<SongInput> songs = library.getSongCandidates(filters);
+        event.setCandidates(songs.size());
+        yield searchBar.getSearchType().searchMelody(songs, command);
+      }
+
+      case Constants.PODCAST -> {
+        List<PodcastInput> podcasts = library.getPodcastCandidates(filters);
+        event.setCandidates(podcasts.size());
+        yield searchBar.getSearchType().searchPodcast(podcasts, command);
+      }
+
+      case Constants.PLAYLIST -> searchPlaylist(searchBar, command, filters, event);
+
+      case Constants.ALBUM -> {
+        event.setCandidates(library.getAlbums().size());
+        yield searchBar.getSearchType().searchAlbum(command);
+      }
+
+      case Constants.ARTIST -> {
+        event.setCandidates(library.getArtists().size());
+        yield searchBar.getSearchType().searchArtists(command);
+      }
+      case Constants.HOST -> {
+        event.setCandidates(library.getHosts().size());
+        yield searchBar.getSearchType().searchHosts(command);
+      }
+
+      default -> throw new IllegalArgumentException(SearchBarEnums.INVALID_SEARCH);
+    };
+  }
+
+  /**
+   * Runs a search of every type at once, by the name filter, and keeps the type of every result
+   * in the user, for the select command. It is not cached, since the cache only keeps the names.
+   *
+   * @param user The user who searches.
+   * @param command The search command.
+   * @param filters The compiled filters of the command.
+   * @param event The flight recorder event of the search.
+   * @return The output of the search, with the names of the results, best first.
+   */
+  private static Output searchAll(
+      final UserInput user,
+      final Command command,
+      final CompiledFilters filters,
+      final SearchEvent event) {
+    List<UniversalSearch.Hit> hits = UniversalSearch.search(LibraryInput.getInstance(),
+        filters.getName(), user.getUsername(), Constants.TOP5, event::setCandidates);
+    ArrayList<String> names = new ArrayList<>();
+    List<String> types = new ArrayList<>();
+
+    for (UniversalSearch.Hit hit : hits) {
+      names.add(hit.name());
+      types.add(hit.type());
+    }
+
+    user.setSearchResultTypes(types);
+    return new Output(command,
+        SearchBarEnums.SEARCH_RETURN + names.size() + SearchBarEnums.SEARCH_RESULT, names);
+  }
+
+  /**
+   * Runs a playlist search. The playlist index of the library first looks for a playlist visible
+   * to the user which matches the filters, stopping at the first one, and if there is none, the
+   * empty result is returned without the search bar scanning every playlist.
+   *
+   * @param searchBar The search bar of the user.
+   * @param command The search command.
+   * @param filters The compiled filters of the command.
+   * @param event The flight recorder event of the search.
+   * @return The output of the search.
+   */
+  private static Output searchPlaylist(
+      final SearchBar searchBar,
+      final Command command,
+      final CompiledFilters filters,
+      final SearchEvent event) {
+    if (!LibraryInput.getInstance().hasPlaylistMatches(filters, command.getUsername())) {
+      return new Output(command,
+          SearchBarEnums.SEARCH_RETURN + 0 + SearchBarEnums.SEARCH_RESULT, new ArrayList<>());
+    }
+
+    event.setCandidates(LibraryInput.getInstance().getPlaylists().size());
+    return searchBar.getSearchType().searchPlaylist(command);
+  }
 }
@@ -23,8 +23,10 @@ public final class SelectCommand implements Executable {
    * the message to NO_PREV_SEARCH. If a search result exists but its size is less than the item
    * number in the command, it sets the message to TOO_HIGH_ID. Otherwise, it retrieves the name of
    * the selected result, sets the message to SUCCESS_SELECT with the name, and sets the selected
-   * result in the search bar. Finally, it returns an Output object containing the command, the
-   * message, the type of the selected result, and the name of the selected result.
+   * result in the search bar. The results of a search of every type are typed one by one, so the
+   * selected result gets the type of its own entry. Finally, it returns an Output object containing
+   * the command, the message, the type of the selected result, and the name of the selected
+   * result.
    *
    * @param command The command object which specifies the user and current timestamp in order to
    *     identify the current audio file playing.
@@ -58,11 +60,16 @@ public final class SelectCommand implements Executable {
         selectOutput = new Output(command, message);
       } else {
         name = searchBar.getSearchResult().getResults().get(command.getItemNumber() - 1);
-        if (searchBar.getSearchResult().getType().equals(ARTIST)) {
+        String type = searchBar.getSearchResult().getType();
+        if (type.equalsIgnoreCase(Constants.ALL)) {
+          type = user.getSearchResultTypes().get(command.getItemNumber() - 1);
+        }
+
+        if (type.equals(ARTIST)) {
           message = SearchBarEnums.SelectMessagesEnum.SUCCESS_SELECT.getName() + name + PAGE;
           ArtistInput artist = LibraryInput.getInstance().getArtistByName(name);
           user.setPage(artist.getPage());
-        } else if (searchBar.getSearchResult().getType().equals(Constants.HOST)) {
+        } else if (type.equals(Constants.HOST)) {
           message = SearchBarEnums.SelectMessagesEnum.SUCCESS_SELECT.getName() + name + PAGE;
           HostInput host = LibraryInput.getInstance().getHostByName(name);
           user.setPage(host.getPage());
@@ -72,7 +79,7 @@ public final class SelectCommand implements Executable {
         }
 
         selectOutput = new Output(command, message);
-        selectOutput.setType(searchBar.getSearchResult().getType());
+        selectOutput.setType(type);
         selectOutput.setName(name);
 
         user.getSearchBar().setSelectedResult(selectOutput);
@@ -4,18 +4,17 @@ import static commands.constants.UserCommandsEnums.SwitchConnectionStatusMessage
 import static commands.player.PlayerHelperFunctions.buildNoShuffleIndexArray;
 import static commands.player.PlayerHelperFunctions.recalculateTotalTimestamp;
 import static commands.player.PlayerHelperFunctions.shuffleIndexes;
-import static commands.player.TimestampTrack.getShufflePlaylistRemainingTime;
 import static commands.player.TimestampTrack.updateAudioTrackbar;
 
 import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
 import commands.jsonReader.Output;
+import commands.player.PlaybackCursor;
 import commands.player.Player;
 import commands.constants.PlayerEnums;
 import commands.constants.StatusEnums;
 import fileio.input.LibraryInput;
 import fileio.input.PlaylistInput;
-import fileio.input.SongInput;
 import fileio.input.UserInput;
 
 public final class ShuffleCommand implements Executable {
@@ -53,7 +52,7 @@ public final class ShuffleCommand implements Executable {
       player.setLastCommandTimestamp(command.getTimestamp());
     }
     if (user.isOnline()) {
-      if (player.getLoadedPlaylist() != null && getShufflePlaylistRemainingTime(player) <= 0) {
+      if (player.getLoadedPlaylist() != null && PlaybackCursor.of(user).getRemainingTime() <= 0) {
         player.setLoadingStatus(StatusEnums.LoadEnum.NOT_LOADED.ordinal());
       }
 
@@ -62,9 +61,9 @@ public final class ShuffleCommand implements Executable {
 
         if (playlistLoaded != null) {
           if (player.getShuffleStatus() == StatusEnums.ShuffleEnum.IS_SHUFFLED.ordinal()) {
-            message = getCurrentSongTimestampDeactivatedShuffle(playlistLoaded, player);
+            message = getCurrentSongTimestampDeactivatedShuffle(user, playlistLoaded);
           } else {
-            message = getCurrentSongTimestampActivatedShuffle(command, playlistLoaded, player);
+            message = getCurrentSongTimestampActivatedShuffle(command, user, playlistLoaded);
           }
         } else {
           message = PlayerEnums.ShuffleMessagesEnum.FILE_ERROR.getName();
@@ -80,70 +79,61 @@ public final class ShuffleCommand implements Executable {
     }
 
   /**
-   * The method retrieves the currently playing song and the total duration of played songs in the
-   * shuffled playlist. It then calculates the time in the current song and updates the player's
-   * shuffle array and shuffle status. Finally, it recalculates the total timestamp and sets the
-   * message to ACTIVATE.
+   * The method takes the cursor of the player, with the currently playing song and the total
+   * duration of played songs in the shuffled playlist. It then calculates the time in the current
+   * song and updates the player's shuffle array and shuffle status. Finally, it recalculates the
+   * total timestamp in the new order, moves the player there and sets the message to ACTIVATE.
    *
    * @param command The Command object.
+   * @param user The user whose player is playing the playlist.
    * @param playlistLoaded The PlaylistInput object representing the loaded playlist.
-   * @param player The Player object.
    * @return A String representing the result of the operation.
    */
   private static String getCurrentSongTimestampActivatedShuffle(
-      final Command command, final PlaylistInput playlistLoaded, final Player player) {
+      final Command command, final UserInput user, final PlaylistInput playlistLoaded) {
     String message;
-    SongInput song =
-        playlistLoaded.getShuffleCurrentPlayingSong(
-            player.getTotalTimestamp(), player.getCurrentShuffleArray());
-
-    Integer playedSongsSum =
-        playlistLoaded.getShufflePlayedSongsTotalDuration(
-            player.getTotalTimestamp(), player.getCurrentShuffleArray());
+    Player player = user.getPlayer();
+    PlaybackCursor cursor = PlaybackCursor.of(user);
 
-    Integer timeInSong = player.getTotalTimestamp() - playedSongsSum;
+    Integer timeInSong = cursor.getTotalTimestamp() - cursor.getStart();
     player.setCurrentShuffleArray(shuffleIndexes(playlistLoaded, command));
     player.setShuffleStatus(StatusEnums.ShuffleEnum.IS_SHUFFLED.ordinal());
 
-    player.setTotalTimestamp(
-        recalculateTotalTimestamp(player.getLoadedPlaylist(), song, player.getCurrentShuffleArray())
-            + timeInSong);
+    PlaybackCursor.moveTo(user,
+        recalculateTotalTimestamp(player.getLoadedPlaylist(), cursor.getSong(),
+            player.getCurrentShuffleArray()) + timeInSong);
 
     message = PlayerEnums.ShuffleMessagesEnum.ACTIVATE.getName();
     return message;
   }
 
   /**
-   * The method retrieves the currently playing song and the total duration of played songs in the
-   * shuffled playlist. It then calculates the time in the current song and updates the player's
-   * shuffle array and shuffle status. Finally, it recalculates the total timestamp and sets the
-   * message to DEACTIVATE.
+   * The method takes the cursor of the player, with the currently playing song and the total
+   * duration of played songs in the shuffled playlist. It then calculates the time in the current
+   * song and updates the player's shuffle array and shuffle status. Finally, it recalculates the
+   * total timestamp in the original order, moves the player there and sets the message to
+   * DEACTIVATE.
    *
+   * @param user The user whose player is playing the playlist.
    * @param playlistLoaded The PlaylistInput object representing the loaded playlist.
-   * @param player The Player object.
    * @return A String representing the result of the operation.
    */
   private static String getCurrentSongTimestampDeactivatedShuffle(
-      final PlaylistInput playlistLoaded, final Player player) {
+      final UserInput user, final PlaylistInput playlistLoaded) {
     String message;
     message = PlayerEnums.ShuffleMessagesEnum.DEACTIVATE.getName();
 
-    SongInput song =
-        playlistLoaded.getShuffleCurrentPlayingSong(
-            player.getTotalTimestamp(), player.getCurrentShuffleArray());
-
-    Integer playedSongsSum =
-        playlistLoaded.getShufflePlayedSongsTotalDuration(
-            player.getTotalTimestamp(), player.getCurrentShuffleArray());
+    Player player = user.getPlayer();
+    PlaybackCursor cursor = PlaybackCursor.of(user);
 
-    Integer timeInSong = player.getTotalTimestamp() - playedSongsSum;
+    Integer timeInSong = cursor.getTotalTimestamp() - cursor.getStart();
 
     player.setCurrentShuffleArray(buildNoShuffleIndexArray(playlistLoaded));
     player.setShuffleStatus(StatusEnums.ShuffleEnum.NOT_SHUFFLED.ordinal());
 
-    player.setTotalTimestamp(
-        recalculateTotalTimestamp(playlistLoaded, song, player.getCurrentShuffleArray())
-            + timeInSong);
+    PlaybackCursor.moveTo(user,
+        recalculateTotalTimestamp(playlistLoaded, cursor.getSong(),
+            player.getCurrentShuffleArray()) + timeInSong);
 
     return message;
   }
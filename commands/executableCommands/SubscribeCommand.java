@@ -71,6 +71,7 @@ public class SubscribeCommand implements Executable {
             for (BalanceObserver subscriber : host.getSubscribers()) {
                 if (subscriber.equals(user)) {
                     host.unsubscribe(user);
+                    LibraryInput.getInstance().hostSubscribersChanged(host);
 
                     message = username + SUCCESS_UNSUBSCRIBE.getName() + name
                             + SUCCESSFULLY.getName();
@@ -78,6 +79,7 @@ public class SubscribeCommand implements Executable {
                 }
             }
             host.subscribe(user);
+            LibraryInput.getInstance().hostSubscribersChanged(host);
 
             message = username + SUCCESS_SUBSCRIBE.getName() + name + SUCCESSFULLY.getName();
             return new Output(command, message);
@@ -4,8 +4,8 @@ import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
 import commands.jsonReader.Output;
 import commands.player.Player;
-import fileio.input.ArtistInput;
-import fileio.input.HostInput;
+import fileio.input.AccountEntry;
+import fileio.input.AccountEntry.AccountType;
 import fileio.input.LibraryInput;
 import fileio.input.UserInput;
 
@@ -31,25 +31,10 @@ public final class SwitchConnectionStatusCommand implements Executable {
   public BaseOutput executeCommand(final Command command) {
     String message;
     String username = command.getUsername();
-    UserInput user = LibraryInput.getInstance().getUserByName(username);
+    AccountEntry account = LibraryInput.getInstance().getAccountByName(username);
+    UserInput user = account.asUser();
 
-    boolean isNormalUser = true;
-
-    for (ArtistInput artist : LibraryInput.getInstance().getArtists()) {
-      if (artist.getUsername().equals(username)) {
-        isNormalUser = false;
-        break;
-      }
-    }
-
-    for (HostInput host : LibraryInput.getInstance().getHosts()) {
-      if (host.getUsername().equals(username)) {
-        isNormalUser = false;
-        break;
-      }
-    }
-
-    if (!isNormalUser) {
+    if (account.getType() == AccountType.ARTIST || account.getType() == AccountType.HOST) {
       message = username + NOT_NORMAL.getName();
       return new Output(command, message);
     }
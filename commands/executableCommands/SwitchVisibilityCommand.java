@@ -54,6 +54,7 @@ public final class SwitchVisibilityCommand implements Executable {
         } else {
           playlist.setVisibility(StatusEnums.VisibilityEnum.PRIVATE.getName());
         }
+        LibraryInput.getInstance().updatePlaylist(playlist);
         message =
             PlaylistEnums.SwitchVisibilityEnum.SUCCESS_SWITCH.getName()
                 + playlist.getVisibility()
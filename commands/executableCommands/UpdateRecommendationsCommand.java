@@ -4,12 +4,16 @@ import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
 import commands.jsonReader.Output;
 import commands.player.History;
+import commands.player.PlaybackClock;
+import engine.TopK;
+import fileio.input.AccountEntry;
 import fileio.input.ArtistInput;
 import fileio.input.HostInput;
 import fileio.input.LibraryInput;
 import fileio.input.PlaylistInput;
 import fileio.input.SongInput;
 import fileio.input.UserInput;
+import metrics.events.RecommendationEvent;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -56,9 +60,10 @@ public class UpdateRecommendationsCommand implements Executable {
     public BaseOutput executeCommand(final Command command) {
         String message;
         String username = command.getUsername();
-        UserInput user = LibraryInput.getInstance().getUserByName(username);
-        ArtistInput artist = LibraryInput.getInstance().getArtistByName(command.getUsername());
-        HostInput host = LibraryInput.getInstance().getHostByName(command.getUsername());
+        AccountEntry account = LibraryInput.getInstance().getAccountByName(username);
+        UserInput user = account.asUser();
+        ArtistInput artist = account.asArtist();
+        HostInput host = account.asHost();
 
         if (user == null && artist == null && host == null) {
             message = USERNAME + username + NO_EXIST.getName();
@@ -70,15 +75,20 @@ public class UpdateRecommendationsCommand implements Executable {
             return new Output(command, message);
         }
 
+        RecommendationEvent event = new RecommendationEvent();
+        event.begin();
+
         if (command.getRecommendationType().equals(RANDOM_SONG)) {
             user.setLastRecommendationType(RANDOM_SONG);
             message = randomSong(user);
+            commitEvent(event, user, RANDOM_SONG, message);
             return new Output(command, message);
         }
 
         if (command.getRecommendationType().equals(RANDOM_PLAYLIST)) {
             user.setLastRecommendationType(RANDOM_PLAYLIST);
             message = randomPlaylist(command, user);
+            commitEvent(event, user, RANDOM_PLAYLIST, message);
             return new Output(command, message);
         }
 
@@ -100,12 +110,33 @@ public class UpdateRecommendationsCommand implements Executable {
                 songArtist = loadedSong.getArtist();
             }
 
+            PlaybackClock.syncAllPlayers(command);
             message = fansPlaylist(command, songArtist);
+            commitEvent(event, user, FANS_PLAYLIST, message);
             return new Output(command, message);
         }
         return null;
     }
 
+    /**
+     * Commits the flight recorder event of a recommendation, if the event is enabled.
+     *
+     * @param event              The event started before the recommendation was generated.
+     * @param user               The user the recommendation was generated for.
+     * @param recommendationType The type of the recommendation.
+     * @param message            The message returned by the generation, which tells whether a
+     *                           recommendation was added.
+     */
+    private static void commitEvent(final RecommendationEvent event, final UserInput user,
+                                    final String recommendationType, final String message) {
+        if (event.shouldCommit()) {
+            event.setUsername(user.getUsername());
+            event.setRecommendationType(recommendationType);
+            event.setUpdated(!message.equals(NO_RECOMMENDATIONS.getName()));
+            event.commit();
+        }
+    }
+
     /**
      * Recommends a random song from the same genre as the currently loaded song for a given user.
      * <p>
@@ -251,19 +282,18 @@ public class UpdateRecommendationsCommand implements Executable {
     /**
      * Returns the top genres based on their frequency.
      * <p>
-     * This method takes a Map of genre frequencies as input, sorts the entries in descending order
-     * of frequency,
-     * limits the result to the top genres (defined by the constant TOP_GENRE), and collects the
-     * genre names into a List.
+     * This method takes a Map of genre frequencies as input, keeps the top genres (defined by the
+     * constant TOP_GENRE) by descending frequency in a bounded heap, and collects the genre names
+     * into a List.
      *
      * @param genreFrequency A Map where each key is a genre and each value is the frequency of
      *                       that genre.
      * @return A List of the top genres.
      */
     public static List<String> getTopGenres(final Map<String, Integer> genreFrequency) {
-        return genreFrequency.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .limit(TOP_GENRE)
+        return TopK.select(genreFrequency.entrySet(), TOP_GENRE,
+                        Map.Entry.<String, Integer>comparingByValue().reversed())
+                .stream()
                 .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
     }
@@ -368,15 +398,15 @@ public class UpdateRecommendationsCommand implements Executable {
         PlaylistInput randomPlaylist = new PlaylistInput(command, name);
 
         for (SongInput song : top5FirstGenreSongs) {
-            randomPlaylist.getSongs().add(song);
+            randomPlaylist.addSong(song);
         }
 
         for (SongInput song : top3SecondGenreSongs) {
-            randomPlaylist.getSongs().add(song);
+            randomPlaylist.addSong(song);
         }
 
         for (SongInput song : top2ThirdGenreSongs) {
-            randomPlaylist.getSongs().add(song);
+            randomPlaylist.addSong(song);
         }
 
         List<SongInput> randomPlaylistSongs = randomPlaylist.getSongs();
@@ -408,7 +438,7 @@ public class UpdateRecommendationsCommand implements Executable {
 
         for (List<SongInput> top5LikedSongs : top5LikedSongsAllFans) {
             for (SongInput song : top5LikedSongs) {
-                fansPlaylist.getSongs().add(song);
+                fansPlaylist.addSong(song);
             }
         }
 
@@ -453,9 +483,9 @@ public class UpdateRecommendationsCommand implements Executable {
             }
         }
 
-        top5Fans = topFansHashMap.entrySet().stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
-                .limit(TOP5)
+        top5Fans = TopK.select(topFansHashMap.entrySet(), TOP5,
+                        Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .stream()
                 .map(Map.Entry::getKey)
                 .collect(Collectors.toList());
 
@@ -467,8 +497,8 @@ public class UpdateRecommendationsCommand implements Executable {
      * <p>
      * This method takes a fan's username as input and retrieves the fan's liked songs from the
      * library.
-     * It then sorts the liked songs in descending order of likes, limits the result to the top
-     * 5 songs, and collects the songs into a List.
+     * It then keeps the top 5 liked songs, in descending order of likes, in a bounded heap and
+     * returns them as a List.
      *
      * @param fan The username of the fan whose top 5 liked songs are to be found.
      * @return A List of the top 5 liked songs of the given fan.
@@ -478,10 +508,8 @@ public class UpdateRecommendationsCommand implements Executable {
 
         List<SongInput> likedSongs = user.getLikedSongs();
 
-        return likedSongs.stream()
-                .sorted(Comparator.comparing(SongInput::getLikes).reversed())
-                .limit(TOP5)
-                .toList();
+        return TopK.select(likedSongs, TOP5,
+                Comparator.comparing(SongInput::getLikes).reversed());
     }
 
 }
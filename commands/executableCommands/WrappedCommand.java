@@ -8,25 +8,32 @@ import commands.jsonReader.WrappedResultArtist;
 import commands.jsonReader.WrappedResultHost;
 import commands.jsonReader.WrappedResultUser;
 import commands.player.History;
+import commands.player.PlaybackClock;
 import commands.player.Player;
+import engine.TopK;
+import fileio.input.AccountEntry;
 import fileio.input.ArtistInput;
 import fileio.input.EpisodeInput;
 import fileio.input.HostInput;
 import fileio.input.LibraryInput;
 import fileio.input.SongInput;
 import fileio.input.UserInput;
+import metrics.events.WrappedEvent;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+import static commands.constants.Constants.ARTIST;
 import static commands.constants.Constants.DOT;
+import static commands.constants.Constants.HOST;
 import static commands.constants.Constants.TOP5;
+import static commands.constants.Constants.USER;
 import static commands.constants.UserCommandsEnums.WrappedMessagesEnum.NO_LISTENS_ARTIST;
 import static commands.constants.UserCommandsEnums.WrappedMessagesEnum.NO_LISTENS_HOST;
 import static commands.constants.UserCommandsEnums.WrappedMessagesEnum.NO_LISTENS_USER;
@@ -55,9 +62,10 @@ public class WrappedCommand implements Executable {
     public BaseOutput executeCommand(final Command command) {
         String message;
         String username = command.getUsername();
-        UserInput user = LibraryInput.getInstance().getUserByName(username);
-        ArtistInput artist = LibraryInput.getInstance().getArtistByName(command.getUsername());
-        HostInput host = LibraryInput.getInstance().getHostByName(command.getUsername());
+        AccountEntry account = LibraryInput.getInstance().getAccountByName(username);
+        UserInput user = account.asUser();
+        ArtistInput artist = account.asArtist();
+        HostInput host = account.asHost();
 
         if (user != null) {
             Player player = user.getPlayer();
@@ -76,6 +84,7 @@ public class WrappedCommand implements Executable {
         }
 
         if (artist != null) {
+            PlaybackClock.syncAllPlayers(command);
             WrappedResultArtist artistTops = calculateArtistStatistics(artist);
 
             if (artistTops.getTopSongs().isEmpty() && artistTops.getTopAlbums().isEmpty()
@@ -88,6 +97,7 @@ public class WrappedCommand implements Executable {
         }
 
         if (host != null) {
+            PlaybackClock.syncAllPlayers(command);
             WrappedResultHost hostTops = calculateHostStatistics(host);
 
             if (hostTops.getTopEpisodes().isEmpty()) {
@@ -124,6 +134,8 @@ public class WrappedCommand implements Executable {
         HashMap<String, Integer> topAlbums = new HashMap<>();
         HashMap<String, Integer> topEpisodes = new HashMap<>();
         WrappedResultUser result = new WrappedResultUser();
+        WrappedEvent event = new WrappedEvent();
+        event.begin();
 
         for (SongInput song : listens.getSongHistory()) {
 
@@ -166,6 +178,7 @@ public class WrappedCommand implements Executable {
         result.setTopAlbums(topAlbums);
         result.setTopEpisodes(topEpisodes);
 
+        commitEvent(event, user.getUsername(), USER);
         return result;
     }
 
@@ -190,6 +203,8 @@ public class WrappedCommand implements Executable {
         HashMap<String, Integer> topFansHashMap = new HashMap<>();
         List<String> topFans;
         WrappedResultArtist result = new WrappedResultArtist();
+        WrappedEvent event = new WrappedEvent();
+        event.begin();
 
         for (UserInput user : LibraryInput.getInstance().getUsers()) {
             History listens = user.getListens();
@@ -230,6 +245,7 @@ public class WrappedCommand implements Executable {
         result.setTopAlbums(topAlbums);
         result.setTopFans(topFans);
 
+        commitEvent(event, artist.getUsername(), ARTIST);
         return result;
     }
 
@@ -253,6 +269,8 @@ public class WrappedCommand implements Executable {
         HashMap<String, Integer> topEpisodes = new HashMap<>();
         Set<String> listeners = new HashSet<>();
         WrappedResultHost result = new WrappedResultHost();
+        WrappedEvent event = new WrappedEvent();
+        event.begin();
 
         for (UserInput user : LibraryInput.getInstance().getUsers()) {
             History listens = user.getListens();
@@ -274,34 +292,51 @@ public class WrappedCommand implements Executable {
         result.setTopEpisodes(topEpisodes);
         result.setListeners(listeners.size());
 
+        commitEvent(event, host.getUsername(), HOST);
         return result;
     }
 
+    /**
+     * Commits the flight recorder event of a Wrapped aggregation, if the event is enabled.
+     *
+     * @param event       The event started when the aggregation began.
+     * @param username    The username of the account whose statistics were calculated.
+     * @param accountType The type of the account.
+     */
+    private static void commitEvent(final WrappedEvent event, final String username,
+                                    final String accountType) {
+        if (event.shouldCommit()) {
+            event.setUsername(username);
+            event.setAccountType(accountType);
+            event.commit();
+        }
+    }
+
     /**
      * Sorts a HashMap by value in descending order and then by key in ascending order, and limits
      * the size to the top 5 entries.
      *
-     * This method takes a HashMap as input and sorts it first by value in descending order and
-     * then by key in ascending order using a stream.
-     * It then limits the size of the HashMap to the top 5 entries and collects the result into a
-     * new LinkedHashMap, which maintains the order of the entries.
+     * This method takes a HashMap as input and keeps its top 5 entries, by value in descending
+     * order and then by key in ascending order, in a bounded heap instead of sorting every entry.
+     * It then collects the result into a new LinkedHashMap, which maintains the order of the
+     * entries.
      *
      * @param topHashMap The HashMap to be sorted.
      * @return A LinkedHashMap containing the top 5 entries from the input HashMap, sorted by value
      * in descending order and then by key in ascending order.
      */
     private static HashMap<String, Integer> sortHashMapTop(HashMap<String, Integer> topHashMap) {
-        topHashMap = topHashMap.entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue()
+        Comparator<Map.Entry<String, Integer>> ranking =
+                Map.Entry.<String, Integer>comparingByValue()
                         .reversed()
-                        .thenComparing(Map.Entry.comparingByKey()))
-                .limit(TOP5)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (oldValue, newValue) -> oldValue,
-                        LinkedHashMap::new));
-        return topHashMap;
+                        .thenComparing(Map.Entry.comparingByKey());
+        HashMap<String, Integer> top = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Integer> entry
+                : TopK.select(topHashMap.entrySet(), TOP5, ranking)) {
+            top.put(entry.getKey(), entry.getValue());
+        }
+
+        return top;
     }
 }
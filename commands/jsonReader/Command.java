@@ -37,6 +37,10 @@ public final class Command {
     private String nextPage;
     private String recommendationType;
 
+    private String prefix;
+    private Integer limit;
+    private Integer maxEdits;
+
     public Command() {
 
     }
@@ -0,0 +1,69 @@
+package commands.player;
+
+import commands.jsonReader.Command;
+import fileio.input.LibraryInput;
+import fileio.input.UserInput;
+import metrics.events.TrackbarEvent;
+
+import static commands.player.TimestampTrack.updateAudioTrackbar;
+
+/**
+ * The playback clock of the simulation. Players are not advanced on every command anymore; a
+ * player is brought up to the timestamp of a command only when that command reads or changes its
+ * state. The result is the same as advancing every player on every command, because the trackbar
+ * of an online player can be moved over any interval in a single step and an offline player only
+ * has to remember the timestamp of the last command.
+ *
+ * <p>The boundaries of the playback, such as the end of a song or an episode and the ad breaks
+ * queued there, are not scheduled ahead either. The trackbar update crosses every boundary inside
+ * the interval it advances over, so a player brought up to date on demand already handles the
+ * boundaries it passed, and scheduling them would only repeat that work.
+ */
+public final class PlaybackClock {
+
+  private PlaybackClock() {
+  }
+
+  /**
+   * Brings the player of the given user up to the timestamp of the command. If the user is online,
+   * the audio trackbar is advanced. If the user is offline, the time is frozen and only the last
+   * command timestamp is updated.
+   *
+   * @param user The user whose player should be synchronized. Null users are ignored.
+   * @param command The command whose timestamp the player is brought to.
+   */
+  public static void syncPlayer(final UserInput user, final Command command) {
+    if (user == null) {
+      return;
+    }
+
+    TrackbarEvent event = new TrackbarEvent();
+    event.begin();
+
+    Player player = user.getPlayer();
+    if (user.isOnline()) {
+      updateAudioTrackbar(command, player, user.getUsername());
+    } else {
+      player.setLastCommandTimestamp(command.getTimestamp());
+    }
+
+    if (event.shouldCommit()) {
+      event.setUsername(user.getUsername());
+      event.setOnline(user.isOnline());
+      event.setTimestamp(command.getTimestamp());
+      event.commit();
+    }
+  }
+
+  /**
+   * Brings the players of all the users of the library up to the timestamp of the command. It is
+   * used by the commands which read the playback state or the listening history of other users.
+   *
+   * @param command The command whose timestamp the players are brought to.
+   */
+  public static void syncAllPlayers(final Command command) {
+    for (UserInput user : LibraryInput.getInstance().getUsers()) {
+      syncPlayer(user, command);
+    }
+  }
+}
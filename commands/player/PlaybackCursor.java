@@ -0,0 +1,145 @@
+package commands.player;
+
+import fileio.input.DurationTimeline;
+import fileio.input.PlaylistInput;
+import fileio.input.SongInput;
+import fileio.input.UserInput;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+
+import static commands.player.TimestampTrack.getShufflePlaylistRemainingTime;
+
+/**
+ * The position of a player in its loaded playlist: the playing song, its place in the play order
+ * and the moment it started, together with the playback time, the repeat mode and the shuffle
+ * mode it was taken for.
+ *
+ * <p>The player only keeps the absolute playback time, from which the commands that move through
+ * a playlist used to derive the playing song again on every step. A cursor is taken from the
+ * player with a single lookup in the duration timeline of the play order and kept on the user. It
+ * is reused as long as the playlist, its songs, the play order, the playback time and the modes of
+ * the player are the ones it was taken for. The moves of next, prev and shuffle set the playback
+ * time of the player through {@link #moveTo(UserInput, int)}, which keeps the cursor of the new
+ * position.
+ *
+ * <p>Only the position is kept: the remaining time of the playing song is asked from the trackbar
+ * whenever it is needed.
+ *
+ * <p>The playlist only shares the timeline of the unshuffled order, so the cursor keeps the
+ * timeline of its order and hands it to the next cursor of the same order, as long as the songs of
+ * the playlist did not change.
+ */
+@Getter
+public final class PlaybackCursor {
+  @Getter(AccessLevel.NONE)
+  private final Player player;
+  private final PlaylistInput playlist;
+  private final List<Integer> order;
+  @Getter(AccessLevel.NONE)
+  private final DurationTimeline timeline;
+  @Getter(AccessLevel.NONE)
+  private final int timelineVersion;
+  private final int totalTimestamp;
+  private final int repeatStatus;
+  private final int shuffleStatus;
+  private final int index;
+  private final SongInput song;
+  private final int start;
+
+  private PlaybackCursor(final Player player, final PlaybackCursor previous) {
+    this.player = player;
+    this.playlist = player.getLoadedPlaylist();
+    this.order = player.getCurrentShuffleArray();
+    this.timelineVersion = playlist.getTimelineVersion();
+    this.timeline = previous != null
+        && previous.playlist == playlist
+        && previous.order == order
+        && previous.timelineVersion == timelineVersion
+        ? previous.timeline
+        : playlist.getShuffleTimeline(order);
+    this.totalTimestamp = player.getTotalTimestamp();
+    this.repeatStatus = player.getRepeatStatus();
+    this.shuffleStatus = player.getShuffleStatus();
+
+    DurationTimeline.Position position =
+        playlist.getShufflePosition(totalTimestamp, order, timeline);
+    this.index = position == null ? -1 : position.index();
+    this.song = position == null ? null : playlist.getSongs().get(order.get(index));
+    this.start = position == null ? 0 : position.start();
+  }
+
+  /**
+   * Returns the cursor of the player of the given user, which must have a playlist loaded. The
+   * cursor kept on the user is returned if the player has not moved since it was taken.
+   *
+   * @param user The user whose player is looked up.
+   * @return The current position of the player.
+   */
+  public static PlaybackCursor of(final UserInput user) {
+    PlaybackCursor cursor = user.getPlaybackCursor();
+
+    if (cursor == null || !cursor.matches(user.getPlayer())) {
+      cursor = new PlaybackCursor(user.getPlayer(), cursor);
+      user.setPlaybackCursor(cursor);
+    }
+
+    return cursor;
+  }
+
+  /**
+   * Moves the player of the given user to another playback time of its loaded playlist.
+   *
+   * @param user The user whose player is moved.
+   * @param totalTimestamp The new playback time of the player.
+   * @return The position of the player at the new playback time.
+   */
+  public static PlaybackCursor moveTo(final UserInput user, final int totalTimestamp) {
+    user.getPlayer().setTotalTimestamp(totalTimestamp);
+
+    PlaybackCursor cursor = new PlaybackCursor(user.getPlayer(), user.getPlaybackCursor());
+    user.setPlaybackCursor(cursor);
+
+    return cursor;
+  }
+
+  /**
+   * Returns the time left of the playing song, as the trackbar measures it. It is asked from the
+   * trackbar on every call and not kept on the cursor, since it may depend on more of the player
+   * state than the cursor is matched on.
+   *
+   * @return The remaining time of the playing song.
+   */
+  public int getRemainingTime() {
+    return getShufflePlaylistRemainingTime(player);
+  }
+
+  /**
+   * Returns the time elapsed since the playing song started.
+   *
+   * @return The elapsed time of the playing song.
+   */
+  public int getElapsedTime() {
+    return song.getDuration() - getRemainingTime();
+  }
+
+  /**
+   * Returns the playback time at which the playing song finishes.
+   *
+   * @return The sum of the playback time and the remaining time of the playing song.
+   */
+  public int getSongFinishedTimestamp() {
+    return totalTimestamp + getRemainingTime();
+  }
+
+  private boolean matches(final Player current) {
+    return current == player
+        && current.getLoadedPlaylist() == playlist
+        && current.getCurrentShuffleArray() == order
+        && playlist.getTimelineVersion() == timelineVersion
+        && current.getTotalTimestamp() == totalTimestamp
+        && current.getRepeatStatus() == repeatStatus
+        && current.getShuffleStatus() == shuffleStatus;
+  }
+}
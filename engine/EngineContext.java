@@ -0,0 +1,60 @@
+package engine;
+
+import fileio.input.LibraryInput;
+import lombok.Getter;
+import lombok.Setter;
+import metrics.MetricsRegistry;
+
+/**
+ * The state of one simulation: the library (with its account directory and the players of its
+ * users), the search cache, the sharded search mode and the metrics of the commands.
+ *
+ * <p>A context is bound to the thread which replays an input, so the classes which reach the
+ * library through LibraryInput.getInstance work on the simulation of their own thread. Several
+ * inputs can therefore be replayed at the same time in one JVM, each one on its own thread and
+ * with its own context.
+ */
+public final class EngineContext implements AutoCloseable {
+  private static final ThreadLocal<EngineContext> CURRENT =
+      ThreadLocal.withInitial(EngineContext::new);
+
+  @Getter @Setter private LibraryInput library;
+  @Getter private final MetricsRegistry metrics = new MetricsRegistry();
+  @Getter private final SearchCache searchCache = new SearchCache();
+  @Getter private final ShardedSearch shardedSearch = new ShardedSearch();
+
+  private EngineContext() {
+  }
+
+  /**
+   * Creates a new empty context and binds it to the current thread, replacing the context the
+   * thread had before.
+   *
+   * @return The new context. Closing it unbinds it from the thread.
+   */
+  public static EngineContext open() {
+    EngineContext context = new EngineContext();
+    CURRENT.set(context);
+    return context;
+  }
+
+  /**
+   * Returns the context bound to the current thread. A thread which never opened a context gets
+   * an empty one of its own.
+   *
+   * @return The context of the current thread.
+   */
+  public static EngineContext current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Unbinds the context from the current thread if it is still the bound one.
+   */
+  @Override
+  public void close() {
+    if (CURRENT.get() == this) {
+      CURRENT.remove();
+    }
+  }
+}
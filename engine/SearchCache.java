@@ -0,0 +1,124 @@
+package engine;
+
+import commands.constants.Constants;
+import commands.jsonReader.Command;
+import commands.jsonReader.Output;
+import fileio.input.CompiledFilters;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache of search results.
+ *
+ * <p>The key of a search is its type, its compiled filters and, for playlist searches, the user
+ * who searches, since private playlists are only found by their owner. A result is only valid for
+ * the library version it was computed for: when the library version changes, the whole cache is
+ * dropped.
+ *
+ * <p>Only the message and the names of the results are kept, and a hit builds a new output for
+ * the command which searches, so outputs are never shared between commands. The searching command
+ * stores a hit in the search bar like any other result, so the search bar is left as the scan
+ * would have left it.
+ */
+public final class SearchCache {
+  private static final int DEFAULT_CAPACITY = 1024;
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private final int capacity;
+  private final Map<Key, Result> results;
+  private long version = -1;
+  @Getter private long hits;
+  @Getter private long misses;
+
+  public SearchCache() {
+    this(Integer.getInteger("searchCacheSize", DEFAULT_CAPACITY));
+  }
+
+  public SearchCache(final int capacity) {
+    this.capacity = capacity;
+    this.results = new LinkedHashMap<>(Math.max(capacity, 1), LOAD_FACTOR, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Key, Result> eldest) {
+        return size() > SearchCache.this.capacity;
+      }
+    };
+  }
+
+  private record Key(String type, CompiledFilters filters, String viewer) {
+  }
+
+  private record Result(String message, List<String> names) {
+  }
+
+  /**
+   * Returns the cached result of the search of the command, built as an output of that command.
+   *
+   * @param command The search command.
+   * @param filters The compiled filters of the command.
+   * @param libraryVersion The current version of the library.
+   * @return The cached output, or null if the search is not cached for this library version.
+   */
+  public Output lookup(
+      final Command command, final CompiledFilters filters, final long libraryVersion) {
+    if (capacity <= 0) {
+      return null;
+    }
+
+    if (libraryVersion != version) {
+      results.clear();
+      version = libraryVersion;
+    }
+
+    Result result = results.get(keyOf(command, filters));
+    if (result == null) {
+      misses++;
+      return null;
+    }
+
+    hits++;
+    return new Output(command, result.message(), new ArrayList<>(result.names()));
+  }
+
+  /**
+   * Caches the output of a search computed for the current library version.
+   *
+   * @param command The search command.
+   * @param filters The compiled filters of the command.
+   * @param output The output of the search. Null outputs are not cached.
+   */
+  public void store(
+      final Command command, final CompiledFilters filters, final Output output) {
+    if (capacity <= 0 || output == null || output.getResults() == null) {
+      return;
+    }
+
+    results.put(keyOf(command, filters),
+        new Result(output.getMessage(), List.copyOf(output.getResults())));
+  }
+
+  /**
+   * Returns the share of the lookups which were hits.
+   *
+   * @return The hit ratio, between 0 and 1, or 0 if there was no lookup.
+   */
+  public double getHitRatio() {
+    long lookups = hits + misses;
+
+    if (lookups == 0) {
+      return 0;
+    }
+
+    return (double) hits / lookups;
+  }
+
+  private static Key keyOf(final Command command, final CompiledFilters filters) {
+    String type = command.getType().toLowerCase();
+    String viewer = type.equals(Constants.PLAYLIST) ? command.getUsername() : null;
+
+    return new Key(type, filters, viewer);
+  }
+}
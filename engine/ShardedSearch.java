@@ -0,0 +1,138 @@
+package engine;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Filters the candidates of a search in parallel, for very large catalogs.
+ *
+ * <p>The candidate list is split into contiguous shards which are filtered by the tasks of a
+ * fork-join pool, and the matches of the shards are concatenated in shard order, so the result is
+ * exactly the list a sequential scan would have built. Lists smaller than two minimum shards are
+ * always scanned sequentially, where splitting the work would cost more than it saves.
+ *
+ * <p>The mode is off unless the "searchShards" system property asks for more than one shard.
+ * The predicates run on the threads of the pool, which have no engine context of their own, so
+ * they must only read the entries they are given.
+ *
+ * <p>The shards run on a pool of their own rather than on the common pool, which the rest of the
+ * JVM shares. It is created at the first sharded search and serves every engine context, with
+ * one thread per processor unless the "searchPoolSize" system property asks for another size.
+ * The inputs replayed at the same time, one per processor, therefore add no threads of their
+ * own: a replay thread waits while its shards run, so no more threads run than the pool has, plus
+ * the replay threads which are not searching.
+ */
+public final class ShardedSearch {
+  private static final int DEFAULT_MIN_SHARD_SIZE = 65536;
+
+  @Getter private final int shards;
+  private final int minShardSize;
+  private final ForkJoinPool pool;
+
+  public ShardedSearch() {
+    this(Integer.getInteger("searchShards", 1),
+        Integer.getInteger("searchShardMinSize", DEFAULT_MIN_SHARD_SIZE),
+        null);
+  }
+
+  /**
+   * Creates a sharded search.
+   *
+   * @param shards The maximum number of shards of a search.
+   * @param minShardSize The minimum number of candidates of a shard.
+   * @param pool The pool which runs the shards, or null for the pool shared by the contexts.
+   */
+  public ShardedSearch(final int shards, final int minShardSize, final ForkJoinPool pool) {
+    this.shards = shards;
+    this.minShardSize = Math.max(minShardSize, 1);
+    this.pool = pool;
+  }
+
+  /** The pool shared by the engine contexts, created when it is first used. */
+  private static final class SharedPool {
+    private static final ForkJoinPool INSTANCE = new ForkJoinPool(Math.max(1,
+        Integer.getInteger("searchPoolSize", Runtime.getRuntime().availableProcessors())));
+  }
+
+  private static final class Shard<T> extends RecursiveTask<List<T>> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<T> items;
+    private final Predicate<? super T> filter;
+
+    private Shard(final List<T> items, final Predicate<? super T> filter) {
+      this.items = items;
+      this.filter = filter;
+    }
+
+    @Override
+    protected List<T> compute() {
+      return scan(items, filter);
+    }
+  }
+
+  private static final class Merge<T> extends RecursiveTask<List<T>> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Shard<T>> shards;
+
+    private Merge(final List<Shard<T>> shards) {
+      this.shards = shards;
+    }
+
+    @Override
+    protected List<T> compute() {
+      invokeAll(shards);
+
+      List<T> matches = new ArrayList<>();
+      for (Shard<T> shard : shards) {
+        matches.addAll(shard.join());
+      }
+
+      return matches;
+    }
+  }
+
+  /**
+   * Returns the entries of the list which pass the filter, in list order.
+   *
+   * @param items The candidates of the search.
+   * @param filter The predicate which returns true for the entries to be kept.
+   * @param <T> The type of the entries.
+   * @return A new list of the matching entries.
+   */
+  public <T> List<T> filter(final List<T> items, final Predicate<? super T> filter) {
+    int count = Math.min(shards, items.size() / minShardSize);
+
+    if (count <= 1) {
+      return scan(items, filter);
+    }
+
+    List<Shard<T>> tasks = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int from = (int) ((long) items.size() * i / count);
+      int to = (int) ((long) items.size() * (i + 1) / count);
+      tasks.add(new Shard<>(items.subList(from, to), filter));
+    }
+
+    ForkJoinPool workers = pool == null ? SharedPool.INSTANCE : pool;
+    return workers.invoke(new Merge<>(tasks));
+  }
+
+  private static <T> List<T> scan(final List<T> items, final Predicate<? super T> filter) {
+    List<T> matches = new ArrayList<>();
+
+    for (T item : items) {
+      if (filter.test(item)) {
+        matches.add(item);
+      }
+    }
+
+    return matches;
+  }
+}
@@ -0,0 +1,113 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the best ranked items offered to it, up to a limit, in a heap whose root is the worst
+ * kept item. Offering n items costs O(n log k) for a limit of k, instead of sorting all of them
+ * and truncating the result, and only k items are ever held.
+ *
+ * <p>Items ranked the same keep the order in which they were offered, so the selection is the
+ * same as the first k items of a stable sort of the offered items.
+ *
+ * @param <T> The type of the ranked items.
+ */
+public final class TopK<T> {
+  private final int limit;
+  private final Comparator<Ranked<T>> order;
+  private final PriorityQueue<Ranked<T>> kept;
+  private long nextPosition;
+
+  private record Ranked<T>(T item, long position) {
+  }
+
+  public TopK(final int limit, final Comparator<? super T> ranking) {
+    this.limit = limit;
+    this.order = Comparator.<Ranked<T>, T>comparing(Ranked::item, ranking)
+        .thenComparingLong(Ranked::position);
+    this.kept = new PriorityQueue<>(Math.max(limit, 0) + 1, order.reversed());
+  }
+
+  /**
+   * Returns the best ranked items of a list, best first.
+   *
+   * @param items The items to be ranked.
+   * @param limit The maximum number of returned items.
+   * @param ranking The order of the items, best first.
+   * @param <T> The type of the ranked items.
+   * @return At most limit items, best first.
+   */
+  public static <T> List<T> select(
+      final Iterable<? extends T> items, final int limit, final Comparator<? super T> ranking) {
+    TopK<T> best = new TopK<>(limit, ranking);
+
+    for (T item : items) {
+      best.offer(item);
+    }
+
+    return best.toList();
+  }
+
+  /**
+   * Offers the next item, ranked after the items offered before it if they rank the same.
+   *
+   * @param item The offered item.
+   */
+  public void offer(final T item) {
+    offer(item, nextPosition++);
+  }
+
+  /**
+   * Offers an item with an explicit tie-break position, for items which are not offered in their
+   * original order. Items ranked the same are kept by increasing position.
+   *
+   * @param item The offered item.
+   * @param position The position of the item among the items ranked the same.
+   */
+  public void offer(final T item, final long position) {
+    if (limit <= 0) {
+      return;
+    }
+
+    Ranked<T> ranked = new Ranked<>(item, position);
+    if (kept.size() == limit) {
+      if (order.compare(ranked, kept.peek()) >= 0) {
+        return;
+      }
+
+      kept.poll();
+    }
+
+    kept.add(ranked);
+  }
+
+  /**
+   * Returns whether the limit is reached. Once it is, a caller offering items in ranking order
+   * can stop, since no later item can replace a kept one.
+   *
+   * @return True if limit items are kept.
+   */
+  public boolean isFull() {
+    return kept.size() >= limit;
+  }
+
+  /**
+   * Returns the kept items, best first.
+   *
+   * @return A new list of at most limit items.
+   */
+  public List<T> toList() {
+    List<Ranked<T>> sorted = new ArrayList<>(kept);
+    List<T> items = new ArrayList<>(sorted.size());
+
+    sorted.sort(order);
+    for (Ranked<T> ranked : sorted) {
+      items.add(ranked.item());
+    }
+
+    return items;
+  }
+}
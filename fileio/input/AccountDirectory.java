@@ -0,0 +1,103 @@
+package fileio.input;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The directory of all the accounts in the library, keyed by username. Usernames are unique
+ * across normal users, artists and hosts, so every username maps to exactly one account.
+ */
+public final class AccountDirectory {
+  private final Map<String, AccountEntry> accounts = new HashMap<>();
+
+  /**
+   * Drops every account of the directory and registers the given users, artists and hosts.
+   *
+   * @param users The normal users to be registered. Null lists are skipped.
+   * @param artists The artists to be registered. Null lists are skipped.
+   * @param hosts The hosts to be registered. Null lists are skipped.
+   */
+  public void rebuild(
+      final Collection<UserInput> users,
+      final Collection<ArtistInput> artists,
+      final Collection<HostInput> hosts) {
+    accounts.clear();
+
+    if (users != null) {
+      for (UserInput user : users) {
+        register(user);
+      }
+    }
+
+    if (artists != null) {
+      for (ArtistInput artist : artists) {
+        register(artist);
+      }
+    }
+
+    if (hosts != null) {
+      for (HostInput host : hosts) {
+        register(host);
+      }
+    }
+  }
+
+  /**
+   * Registers a normal user under its username.
+   *
+   * @param user The user to be registered.
+   */
+  public void register(final UserInput user) {
+    accounts.putIfAbsent(
+        user.getUsername(), new AccountEntry(AccountEntry.AccountType.USER, user));
+  }
+
+  /**
+   * Registers an artist under its username.
+   *
+   * @param artist The artist to be registered.
+   */
+  public void register(final ArtistInput artist) {
+    accounts.putIfAbsent(
+        artist.getUsername(), new AccountEntry(AccountEntry.AccountType.ARTIST, artist));
+  }
+
+  /**
+   * Registers a host under its username.
+   *
+   * @param host The host to be registered.
+   */
+  public void register(final HostInput host) {
+    accounts.putIfAbsent(
+        host.getUsername(), new AccountEntry(AccountEntry.AccountType.HOST, host));
+  }
+
+  /**
+   * Removes the account registered under the username of the given account, if it is the same
+   * account.
+   *
+   * @param account The account to be removed.
+   */
+  public void unregister(final AccountInput account) {
+    AccountEntry entry = accounts.get(account.getUsername());
+
+    if (entry != null && entry.getAccount().equals(account)) {
+      accounts.remove(account.getUsername());
+    }
+  }
+
+  /**
+   * Looks up the account registered under the given username.
+   *
+   * @param username The username to look up.
+   * @return The entry of the account, or AccountEntry.NONE if no account has this username.
+   */
+  public AccountEntry lookup(final String username) {
+    if (username == null) {
+      return AccountEntry.NONE;
+    }
+
+    return accounts.getOrDefault(username, AccountEntry.NONE);
+  }
+}
@@ -0,0 +1,81 @@
+package fileio.input;
+
+import lombok.Getter;
+
+/**
+ * The result of a lookup in the account directory: the account registered under a username
+ * together with its kind, so that a command learns whether a name belongs to a normal user, an
+ * artist or a host with a single probe.
+ */
+@Getter
+public final class AccountEntry {
+  /**
+   * The entry returned for usernames that are not registered in the library.
+   */
+  public static final AccountEntry NONE = new AccountEntry(null, null);
+
+  private final AccountType type;
+  private final AccountInput account;
+
+  public AccountEntry(final AccountType type, final AccountInput account) {
+    this.type = type;
+    this.account = account;
+  }
+
+  /**
+   * The kinds of accounts the library can hold.
+   */
+  public enum AccountType {
+    USER,
+    ARTIST,
+    HOST
+  }
+
+  /**
+   * Checks if the username of the lookup is registered in the library.
+   *
+   * @return true if an account was found, false otherwise.
+   */
+  public boolean exists() {
+    return account != null;
+  }
+
+  /**
+   * Returns the account as a normal user.
+   *
+   * @return The UserInput object of the account, or null if the account is not a normal user.
+   */
+  public UserInput asUser() {
+    if (type == AccountType.USER) {
+      return (UserInput) account;
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the account as an artist.
+   *
+   * @return The ArtistInput object of the account, or null if the account is not an artist.
+   */
+  public ArtistInput asArtist() {
+    if (type == AccountType.ARTIST) {
+      return (ArtistInput) account;
+    }
+
+    return null;
+  }
+
+  /**
+   * Returns the account as a host.
+   *
+   * @return The HostInput object of the account, or null if the account is not a host.
+   */
+  public HostInput asHost() {
+    if (type == AccountType.HOST) {
+      return (HostInput) account;
+    }
+
+    return null;
+  }
+}
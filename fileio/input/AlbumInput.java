@@ -51,21 +51,15 @@ public final class AlbumInput extends PlaylistInput {
   }
 
   /**
-   * The method iterates over all the albums in the library and returns the one with the given name.
-   * If no album with the given name is found, it returns null. It returns the AlbumInput object
-   * with the given name.
+   * The method looks up the name in the albums index of the library and returns the album with the
+   * given name. If no album with the given name is found, it returns null. It returns the
+   * AlbumInput object with the given name.
    *
    * @param name The name of the album to get. This should be a String.
    * @return The AlbumInput object with the given name, or null if no such album is found.
    */
   public static AlbumInput getAlbumByName(final String name) {
-    for (AlbumInput album : LibraryInput.getInstance().getAlbums()) {
-      if (album.getName().equals(name)) {
-        return album;
-      }
-    }
-
-    return null;
+    return LibraryInput.getInstance().getAlbumByName(name);
   }
 
   /**
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import commands.jsonReader.Command;
 import lombok.Getter;
 import lombok.Setter;
+import metrics.events.NotificationEvent;
 import notifications.BalanceObserver;
 import pages.ArtistPage;
 
@@ -91,8 +92,17 @@ public final class ArtistInput extends AccountInput implements Subject {
 
     @Override
     public void notifyObservers(final String update) {
+        NotificationEvent event = new NotificationEvent();
+        event.begin();
+
         for (BalanceObserver observer : subscribers) {
             observer.update(update);
         }
+
+        if (event.shouldCommit()) {
+            event.setPublisher(getUsername());
+            event.setSubscribers(subscribers.size());
+            event.commit();
+        }
     }
 }
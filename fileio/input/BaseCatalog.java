@@ -0,0 +1,74 @@
+package fileio.input;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The content of library.json, read once and shared by all the runs.
+ *
+ * <p>The catalog itself is never changed. Every run gets its own LibraryInput built by
+ * newLibrary: the lists are new, so the users, playlists, albums and podcasts added or removed
+ * during a run never reach the catalog. Songs are copied because their like counter changes
+ * during a run, users are created again because they carry the whole state of a run, and
+ * podcasts are shared because nothing changes them after they are read.
+ */
+public final class BaseCatalog {
+  private final List<SongInput> songs;
+  private final List<PodcastInput> podcasts;
+  private final List<UserInput> users;
+
+  private BaseCatalog(final LibraryInput library) {
+    this.songs = copyOf(library.getSongs());
+    this.podcasts = copyOf(library.getPodcasts());
+    this.users = copyOf(library.getUsers());
+  }
+
+  /**
+   * Reads the library file into a new catalog.
+   *
+   * @param objectMapper The mapper used to read the file.
+   * @param file The library file.
+   * @return The catalog with the content of the file.
+   * @throws IOException in case of exceptions to reading
+   */
+  public static BaseCatalog load(final ObjectMapper objectMapper, final File file)
+      throws IOException {
+    return new BaseCatalog(objectMapper.readValue(file, LibraryInput.class));
+  }
+
+  /**
+   * Creates the library of a new run from the catalog.
+   *
+   * @return A new LibraryInput object which does not share any changeable state with the catalog
+   *     or with the libraries of other runs.
+   */
+  public LibraryInput newLibrary() {
+    List<SongInput> runSongs = new ArrayList<>(songs.size());
+    for (SongInput song : songs) {
+      runSongs.add(new SongInput(song));
+    }
+
+    List<UserInput> runUsers = new ArrayList<>(users.size());
+    for (UserInput baseUser : users) {
+      UserInput user = new UserInput();
+      user.setUsername(baseUser.getUsername());
+      user.setAge(baseUser.getAge());
+      user.setCity(baseUser.getCity());
+      runUsers.add(user);
+    }
+
+    return LibraryInput.fromCatalog(runSongs, new ArrayList<>(podcasts), runUsers);
+  }
+
+  private static <T> List<T> copyOf(final List<T> items) {
+    if (items == null) {
+      return List.of();
+    }
+
+    return List.copyOf(items);
+  }
+}
@@ -0,0 +1,300 @@
+package fileio.input;
+
+import commands.constants.SearchBarEnums.FiltersEnum;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * The filters of a search command, read once from the untyped filter map of the command.
+ *
+ * <p>The values are kept typed: the tags as a sorted list, and the "&lt;value" or "&gt;value"
+ * filters of the release year and of the followers as inclusive ranges. The compiled filters are
+ * used as the key of the search cache (two commands with the same filters, in any key or tag
+ * order, compile to equal objects), by the indexes of the library to pick the candidates, and to
+ * pre-filter the candidates before the search bar checks them.
+ *
+ * <p>The predicates compare the text in lower case and the ranges are inclusive, so they keep a
+ * superset of the entries the search bar accepts; they only drop the entries which cannot match.
+ */
+@Getter
+public final class CompiledFilters {
+  /**
+   * The filters of a command without filters.
+   */
+  public static final CompiledFilters NONE = compile(null);
+
+  private static final char BELOW = '<';
+  private static final char ABOVE = '>';
+
+  private final String name;
+  private final String album;
+  private final List<String> tags;
+  private final String lyrics;
+  private final String lyricsQuery;
+  private final String genre;
+  private final Range releaseYear;
+  private final String artist;
+  private final String owner;
+  private final Range followers;
+  private final String description;
+
+  @Getter(AccessLevel.NONE)
+  private final Map<String, Object> key;
+
+  /**
+   * An inclusive range of values, read from a "&lt;value" or "&gt;value" filter.
+   *
+   * @param min The smallest value in the range.
+   * @param max The largest value in the range.
+   */
+  public record Range(int min, int max) {
+    /**
+     * Returns whether the value is inside the range.
+     *
+     * @param value The value to be checked. Null values are outside of every range.
+     * @return True if the value is between min and max, inclusive.
+     */
+    public boolean contains(final Integer value) {
+      return value != null && value >= min && value <= max;
+    }
+  }
+
+  private CompiledFilters(final Map<String, Object> filters) {
+    key = normalize(filters);
+    name = text(FiltersEnum.NAME.getName());
+    album = text(FiltersEnum.ALBUM.getName());
+    lyrics = text(FiltersEnum.LYRICS.getName());
+    lyricsQuery = text(FiltersEnum.LYRICS_QUERY.getName());
+    genre = text(FiltersEnum.GENRE.getName());
+    artist = text(FiltersEnum.ARTIST.getName());
+    owner = text(FiltersEnum.OWNER.getName());
+    description = text(FiltersEnum.DESCRIPTION.getName());
+    releaseYear = range(text(FiltersEnum.RELEASE_YEAR.getName()));
+    followers = range(text(FiltersEnum.FOLLOWERS.getName()));
+
+    Object tagList = key.get(FiltersEnum.TAGS.getName());
+    List<String> tagValues = new ArrayList<>();
+    if (tagList instanceof Collection<?> values) {
+      for (Object value : values) {
+        tagValues.add(value.toString());
+      }
+    }
+    tags = Collections.unmodifiableList(tagValues);
+  }
+
+  /**
+   * Compiles the filter map of a search command.
+   *
+   * @param filters The filters of the command. A null map compiles to filters which accept
+   *     everything.
+   * @return The compiled filters.
+   */
+  public static CompiledFilters compile(final Map<String, Object> filters) {
+    return new CompiledFilters(filters);
+  }
+
+  /**
+   * Returns a predicate which keeps the songs which can match the filters. The cheap exact checks
+   * (genre, artist, album and release year) run first, then the name prefix, and the tags and the
+   * lyrics, which walk lists and long strings, run last.
+   *
+   * @return The predicate, which accepts every song if no song filter is set.
+   */
+  public Predicate<SongInput> songPredicate() {
+    List<Predicate<SongInput>> checks = new ArrayList<>();
+
+    if (genre != null) {
+      checks.add(song -> genre.equalsIgnoreCase(song.getGenre()));
+    }
+    if (artist != null) {
+      checks.add(song -> artist.equalsIgnoreCase(song.getArtist()));
+    }
+    if (album != null) {
+      checks.add(song -> album.equalsIgnoreCase(song.getAlbum()));
+    }
+    if (releaseYear != null) {
+      checks.add(song -> releaseYear.contains(song.getReleaseYear()));
+    }
+    if (name != null) {
+      String prefix = lowerCase(name);
+      checks.add(song -> lowerCase(song.getName()).startsWith(prefix));
+    }
+    if (!tags.isEmpty()) {
+      List<String> wanted = tags.stream().map(CompiledFilters::lowerCase).toList();
+      checks.add(song -> song.getTags() != null
+          && song.getTags().stream().map(CompiledFilters::lowerCase).toList().containsAll(wanted));
+    }
+    if (lyrics != null) {
+      String text = lowerCase(lyrics);
+      checks.add(song -> lowerCase(song.getLyrics()).contains(text));
+    }
+
+    return allOf(checks);
+  }
+
+  /**
+   * Returns a predicate which keeps the podcasts which can match the filters, checking the owner
+   * before the name prefix.
+   *
+   * @return The predicate, which accepts every podcast if no podcast filter is set.
+   */
+  public Predicate<PodcastInput> podcastPredicate() {
+    List<Predicate<PodcastInput>> checks = new ArrayList<>();
+
+    if (owner != null) {
+      checks.add(podcast -> owner.equalsIgnoreCase(podcast.getOwner()));
+    }
+    if (name != null) {
+      String prefix = lowerCase(name);
+      checks.add(podcast -> lowerCase(podcast.getName()).startsWith(prefix));
+    }
+
+    return allOf(checks);
+  }
+
+  /**
+   * Returns whether the command has no filter at all.
+   *
+   * @return True if no filter is set.
+   */
+  public boolean isEmpty() {
+    return key.isEmpty();
+  }
+
+  /**
+   * Returns a predicate which keeps the playlists which can match the filters, checking the owner
+   * and the followers before the name prefix.
+   *
+   * @return The predicate, which accepts every playlist if no playlist filter is set.
+   */
+  public Predicate<PlaylistInput> playlistPredicate() {
+    List<Predicate<PlaylistInput>> checks = new ArrayList<>();
+
+    if (owner != null) {
+      checks.add(playlist -> owner.equalsIgnoreCase(playlist.getOwner()));
+    }
+    if (followers != null) {
+      checks.add(playlist -> followers.contains(playlist.getFollowers()));
+    }
+    if (name != null) {
+      String prefix = lowerCase(name);
+      checks.add(playlist -> lowerCase(playlist.getName()).startsWith(prefix));
+    }
+
+    return allOf(checks);
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return key.equals(((CompiledFilters) o).key);
+  }
+
+  @Override
+  public int hashCode() {
+    return key.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "CompiledFilters" + key;
+  }
+
+  private static <T> Predicate<T> allOf(final List<Predicate<T>> checks) {
+    if (checks.isEmpty()) {
+      return item -> true;
+    }
+
+    return checks.stream().reduce(Predicate::and).orElseThrow();
+  }
+
+  private String text(final String filter) {
+    Object value = key.get(filter);
+
+    if (value == null || value instanceof Collection<?>) {
+      return null;
+    }
+
+    return value.toString();
+  }
+
+  /**
+   * Reads a "&lt;value" or "&gt;value" filter as an inclusive range. Other values cannot be read
+   * and give no range, so they do not narrow down anything.
+   */
+  private static Range range(final String filter) {
+    if (filter == null) {
+      return null;
+    }
+
+    String value = filter.trim();
+    if (value.length() < 2 || (value.charAt(0) != BELOW && value.charAt(0) != ABOVE)) {
+      return null;
+    }
+
+    int bound;
+    try {
+      bound = Integer.parseInt(value.substring(1).trim());
+    } catch (NumberFormatException e) {
+      return null;
+    }
+
+    if (value.charAt(0) == BELOW) {
+      return new Range(Integer.MIN_VALUE, bound);
+    }
+
+    return new Range(bound, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Copies the filter map with the keys sorted, the values as strings and the lists of values
+   * sorted, so that equal filters give equal maps.
+   */
+  private static Map<String, Object> normalize(final Map<String, Object> filters) {
+    Map<String, Object> normalized = new TreeMap<>();
+
+    if (filters == null) {
+      return normalized;
+    }
+
+    for (Map.Entry<String, Object> filter : filters.entrySet()) {
+      Object value = filter.getValue();
+
+      if (value instanceof Collection<?> values) {
+        List<String> sorted = new ArrayList<>();
+        for (Object element : values) {
+          sorted.add(String.valueOf(element));
+        }
+        sorted.sort(Comparator.naturalOrder());
+        normalized.put(filter.getKey(), Collections.unmodifiableList(sorted));
+      } else if (value != null) {
+        normalized.put(filter.getKey(), value.toString());
+      }
+    }
+
+    return Collections.unmodifiableMap(normalized);
+  }
+
+  private static String lowerCase(final String text) {
+    if (text == null) {
+      return "";
+    }
+
+    return text.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,111 @@
+package fileio.input;
+
+import java.util.List;
+
+/**
+ * The durations of the songs of a playlist in one play order, kept in a Fenwick tree.
+ *
+ * <p>Position i of the timeline is the i-th song of the play order. The tree finds the position
+ * playing at any moment in O(log n) and gives the total duration in O(1). A play order may refer
+ * to songs which are no longer in the playlist; the timeline then stops before the first of them,
+ * so its size is smaller than the size of the order.
+ */
+public final class DurationTimeline {
+  private final int[] tree;
+  private final int size;
+  private final int total;
+  private final int highestBit;
+
+  private DurationTimeline(final int[] tree, final int size) {
+    this.tree = tree;
+    this.size = size;
+    this.highestBit = Integer.highestOneBit(size);
+
+    int sum = 0;
+    for (int i = size; i > 0; i -= i & -i) {
+      sum += tree[i];
+    }
+    this.total = sum;
+  }
+
+  /**
+   * A moment of the timeline.
+   *
+   * @param index The position of the playing song in the play order.
+   * @param start The moment at which the playing song started.
+   * @param offset The time elapsed since the playing song started.
+   */
+  public record Position(int index, int start, int offset) {
+  }
+
+  /**
+   * Builds the timeline of the songs in the given play order, in linear time.
+   *
+   * @param songs The songs of the playlist.
+   * @param order The indexes of the songs of the playlist, in the order they are played.
+   * @return The timeline of the play order.
+   */
+  public static DurationTimeline of(final List<SongInput> songs, final List<Integer> order) {
+    int size = 0;
+    while (size < order.size() && order.get(size) >= 0 && order.get(size) < songs.size()) {
+      size++;
+    }
+
+    int[] tree = new int[size + 1];
+    for (int i = 1; i <= size; i++) {
+      tree[i] += songs.get(order.get(i - 1)).getDuration();
+
+      int parent = i + (i & -i);
+      if (parent <= size) {
+        tree[parent] += tree[i];
+      }
+    }
+
+    return new DurationTimeline(tree, size);
+  }
+
+  /**
+   * Returns the number of positions of the timeline.
+   *
+   * @return The number of songs of the play order which are in the playlist.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the sum of the durations of all the positions of the timeline.
+   *
+   * @return The total duration of the timeline.
+   */
+  public int total() {
+    return total;
+  }
+
+  /**
+   * Finds the song playing at the given moment: the first song whose end is after the moment.
+   * Songs without a duration are never playing. Before the start of the timeline, the first song
+   * is playing.
+   *
+   * @param time The moment, measured from the start of the timeline.
+   * @return The position playing at that moment, or null if the timeline ends before it.
+   */
+  public Position locate(final int time) {
+    if (size == 0 || time >= total) {
+      return null;
+    }
+
+    int position = 0;
+    int remaining = time;
+    for (int bit = highestBit; bit > 0; bit >>= 1) {
+      int next = position + bit;
+
+      if (next <= size && tree[next] <= remaining) {
+        position = next;
+        remaining -= tree[next];
+      }
+    }
+
+    return new Position(position, time - remaining, remaining);
+  }
+}
@@ -3,6 +3,7 @@ package fileio.input;
 import commands.jsonReader.Command;
 import lombok.Getter;
 import lombok.Setter;
+import metrics.events.NotificationEvent;
 import notifications.BalanceObserver;
 import notifications.Subject;
 import pages.HostPage;
@@ -56,8 +57,17 @@ public final class HostInput extends AccountInput implements Subject {
 
   @Override
   public void notifyObservers(final String update) {
+    NotificationEvent event = new NotificationEvent();
+    event.begin();
+
     for (BalanceObserver observer : subscribers) {
       observer.update(update);
     }
+
+    if (event.shouldCommit()) {
+      event.setPublisher(getUsername());
+      event.setSubscribers(subscribers.size());
+      event.commit();
+    }
   }
 }
@@ -1,134 +1,225 @@
 package fileio.input;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import engine.EngineContext;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import pages.HomePage;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 
 @Getter
 @Setter
 public final class LibraryInput {
+
   private List<SongInput> songs;
   private List<PodcastInput> podcasts;
   private List<AlbumInput> albums;
 
-  @JsonIgnore private static LibraryInput library;
   @JsonIgnore private ArrayList<PlaylistInput> playlists;
 
   private List<UserInput> users;
   private List<ArtistInput> artists;
   private List<HostInput> hosts;
 
+  @JsonIgnore private final NameIndex<SongInput> songIndex = new NameIndex<>(SongInput::getName);
+  @JsonIgnore private final SongSearchIndex songSearchIndex = new SongSearchIndex();
+  @JsonIgnore private final LyricsIndex lyricsIndex = new LyricsIndex();
+  @JsonIgnore private final PlaylistSearchIndex playlistSearchIndex = new PlaylistSearchIndex();
+  @JsonIgnore private final NameIndex<AlbumInput> albumIndex =
+      new NameIndex<>(AlbumInput::getName);
+  @JsonIgnore private final NameIndex<PlaylistInput> playlistIndex =
+      new NameIndex<>(PlaylistInput::getName);
+  @JsonIgnore private final NameIndex<PodcastInput> podcastIndex =
+      new NameIndex<>(PodcastInput::getName);
+  @JsonIgnore private final AccountDirectory accountDirectory = new AccountDirectory();
+
+  @JsonIgnore @Setter(AccessLevel.NONE) private long version;
+
+  @JsonIgnore private final PrefixIndex<SongInput> songNames =
+      new PrefixIndex<>(SongInput::getName,
+          Comparator.comparingInt(SongInput::getLikes).reversed());
+  @JsonIgnore private final PrefixIndex<SongInput> songArtists =
+      new PrefixIndex<>(SongInput::getArtist);
+  @JsonIgnore private final PrefixIndex<PlaylistInput> playlistNames =
+      new PrefixIndex<>(PlaylistInput::getName,
+          Comparator.comparingInt(PlaylistInput::getFollowers).reversed());
+  @JsonIgnore private final PrefixIndex<AlbumInput> albumNames =
+      new PrefixIndex<>(AlbumInput::getName,
+          Comparator.comparingInt(AlbumInput::getTotalLikesAlbum).reversed());
+  @JsonIgnore private final PrefixIndex<PodcastInput> podcastNames =
+      new PrefixIndex<>(PodcastInput::getName);
+  @JsonIgnore private final PrefixIndex<ArtistInput> artistNames =
+      new PrefixIndex<>(ArtistInput::getUsername,
+          Comparator.comparingInt(ArtistInput::getTotalLikes).reversed());
+  @JsonIgnore private final PrefixIndex<HostInput> hostNames =
+      new PrefixIndex<>(HostInput::getUsername,
+          Comparator.comparingInt((HostInput host) -> host.getSubscribers().size()).reversed());
+
   private LibraryInput() {
     playlists = new ArrayList<>();
   }
 
   /**
-   * The method assigns the provided LibraryInput object to the library instance and initializes its
-   * playlists list.
+   * Creates a library from lists prepared by the base catalog. The lists are owned by the new
+   * library and can be changed freely during a run.
+   *
+   * @param songs The songs of the library.
+   * @param podcasts The podcasts of the library.
+   * @param users The normal users of the library.
+   * @return The new LibraryInput object, which still has to be passed to setInstance.
+   */
+  static LibraryInput fromCatalog(
+      final List<SongInput> songs, final List<PodcastInput> podcasts, final List<UserInput> users) {
+    LibraryInput library = new LibraryInput();
+    library.songs = songs;
+    library.podcasts = podcasts;
+    library.users = users;
+    return library;
+  }
+
+  /**
+   * The method assigns the provided LibraryInput object to the library instance of the engine
+   * context of the current thread and initializes its playlists list.
    *
    * @param userLibrary The LibraryInput object to be set as the instance.
    */
   public static void setInstance(final LibraryInput userLibrary) {
-    LibraryInput.library = userLibrary;
-    library.setPlaylists(new ArrayList<>());
-    library.setAlbums(new ArrayList<>());
-    library.setArtists(new ArrayList<>());
-    library.setHosts(new ArrayList<>());
+    EngineContext.current().setLibrary(userLibrary);
+    userLibrary.setPlaylists(new ArrayList<>());
+    userLibrary.setAlbums(new ArrayList<>());
+    userLibrary.setArtists(new ArrayList<>());
+    userLibrary.setHosts(new ArrayList<>());
 
-    for (UserInput user : library.getUsers()) {
+    for (UserInput user : userLibrary.getUsers()) {
       user.setPage(new HomePage(user));
     }
+
+    userLibrary.rebuildIndexes();
+  }
+
+  /**
+   * Rebuilds all the name indexes from the current content of the library lists. It must be called
+   * every time a list is replaced as a whole, since the indexes only follow the changes made
+   * through the add and remove methods of the library.
+   */
+  public void rebuildIndexes() {
+    songIndex.rebuild(songs);
+    songSearchIndex.rebuild(songs);
+    lyricsIndex.rebuild(songs);
+    albumIndex.rebuild(albums);
+    playlistIndex.rebuild(playlists);
+    playlistSearchIndex.rebuild(playlists);
+    podcastIndex.rebuild(podcasts);
+    accountDirectory.rebuild(users, artists, hosts);
+    songNames.rebuild(songs);
+    songArtists.rebuild(songs);
+    playlistNames.rebuild(playlists);
+    albumNames.rebuild(albums);
+    podcastNames.rebuild(podcasts);
+    artistNames.rebuild(artists);
+    hostNames.rebuild(hosts);
+    markChanged();
   }
 
   /**
-   * If the library instance is null, the method initializes it.
+   * Moves the library to a new version. It is called by every add and remove method of the
+   * library, and must be called by the commands which change an entity of the library in place,
+   * so that the results computed for an older version, like cached searches, are dropped.
+   */
+  public void markChanged() {
+    version++;
+  }
+
+  /**
+   * Returns the library of the engine context of the current thread. If the context has no library
+   * yet, the method initializes it.
    *
    * @return A LibraryInput object representing the instance of the library.
    */
   public static LibraryInput getInstance() {
+    EngineContext context = EngineContext.current();
+    LibraryInput library = context.getLibrary();
+
     if (library == null) {
       library = new LibraryInput();
+      context.setLibrary(library);
     }
 
-    return LibraryInput.library;
+    return library;
   }
 
   /**
-   * The method iterates over all users in the library. If it finds a user with the same username as
-   * the one provided, it returns the user. If it does not find a matching user, it returns null.
+   * The method looks up the username in the account directory and returns the account registered
+   * under it together with its kind. Commands which need to know if a name belongs to a normal
+   * user, an artist or a host should use this single lookup instead of calling getUserByName,
+   * getArtistByName and getHostByName one after another.
+   *
+   * @param name The username of the account to be retrieved.
+   * @return The AccountEntry of the account, or AccountEntry.NONE if no account has this
+   *     username.
+   */
+  public AccountEntry getAccountByName(final String name) {
+    return accountDirectory.lookup(name);
+  }
+
+  /**
+   * The method looks up the username in the account directory. If there is a normal user with the
+   * same username as the one provided, it returns the user. If it does not find a matching user,
+   * it returns null.
    *
    * @param name The username of the user to be retrieved.
    * @return A UserInput object representing the retrieved user, or null if no matching user is
    *     found.
    */
   public UserInput getUserByName(final String name) {
-    for (UserInput user : LibraryInput.getInstance().users) {
-      if (user.getUsername().equals(name)) {
-        return user;
-      }
-    }
-
-    return null;
+    return accountDirectory.lookup(name).asUser();
   }
 
   /**
-   * The method iterates over all songs in the library. If it finds a song with the same name as the
-   * one provided, it returns the song. If it does not find a matching song, it returns null.
+   * The method looks up the name in the songs index. If there are songs with the same name as the
+   * one provided, it returns the first one added to the library. If it does not find a matching
+   * song, it returns null.
    *
    * @param name The name of the song to be retrieved.
    * @return A SongInput object representing the retrieved song, or null if no matching song is
    *     found.
    */
   public SongInput getSongByName(final String name) {
-    for (SongInput song : LibraryInput.getInstance().songs) {
-      if (song.getName().equals(name)) {
-        return song;
-      }
-    }
-
-    return null;
+    return songIndex.getFirst(name);
   }
 
   /**
-   * The method iterates over all the artists in the library and returns the one with the given
-   * username. It returns the ArtistInput object with the given username or null if no artist with
+   * The method looks up the username in the account directory and returns the artist registered
+   * under it. It returns the ArtistInput object with the given username or null if no artist with
    * the given username is found.
    *
    * @param name The username of the artist to get. This should be a String.
    * @return The ArtistInput object with the given username, or null if no such artist is found.
    */
   public ArtistInput getArtistByName(final String name) {
-    for (ArtistInput artist : LibraryInput.getInstance().artists) {
-      if (artist.getUsername().equals(name)) {
-        return artist;
-      }
-    }
-
-    return null;
+    return accountDirectory.lookup(name).asArtist();
   }
 
   /**
-   * The method iterates over all the hosts in the library and returns the one with the given
-   * username. It returns the HostInput object with the given username or null if no host with the
+   * The method looks up the username in the account directory and returns the host registered
+   * under it. It returns the HostInput object with the given username or null if no host with the
    * given username is found.
    *
    * @param name The username of the host to get. This should be a String.
    * @return The HostInput object with the given username, or null if no such host is found.
    */
   public HostInput getHostByName(final String name) {
-    for (HostInput host : LibraryInput.getInstance().hosts) {
-      if (host.getUsername().equals(name)) {
-        return host;
-      }
-    }
-
-    return null;
+    return accountDirectory.lookup(name).asHost();
   }
 
   /**
@@ -147,21 +238,14 @@ public final class LibraryInput {
   }
 
   /**
-   * The method iterates over all the albums in the library and returns the one with the given name.
-   * It returns the AlbumInput object with the given name or null if no album with the given name is
-   * found.
+   * The method looks up the name in the albums index and returns the first album added to the
+   * library with the given name. It returns null if no album with the given name is found.
    *
    * @param name The name of the album to get. This should be a String.
    * @return The AlbumInput object with the given name, or null if no such album is found.
    */
   public AlbumInput getAlbumByName(final String name) {
-    for (AlbumInput album : LibraryInput.getInstance().getAlbums()) {
-      if (album.getName().equals(name)) {
-        return album;
-      }
-    }
-
-    return null;
+    return albumIndex.getFirst(name);
   }
 
   /**
@@ -188,19 +272,420 @@ public final class LibraryInput {
   /**
    * Retrieves a playlist from the library by its name.
    *
-   * This method iterates over all playlists in the library. For each playlist, it checks if the
-   * playlist's name matches the input name. If it does, it returns the playlist.
+   * This method looks up the name in the playlists index and returns the first playlist created
+   * with the input name.
    *
    * @param name The name of the playlist to retrieve.
    * @return The playlist with the input name. If no such playlist is found, it returns null.
    */
   public PlaylistInput getPlaylistByName(final String name) {
-    for (PlaylistInput playlist : LibraryInput.getInstance().getPlaylists()) {
-      if (playlist.getName().equals(name)) {
-        return playlist;
+    return playlistIndex.getFirst(name);
+  }
+
+  /**
+   * Retrieves all the playlists from the library with the given name, in the order they were
+   * created.
+   *
+   * @param name The name of the playlists to retrieve.
+   * @return An unmodifiable list of the playlists with the input name, empty if there is none.
+   */
+  public List<PlaylistInput> getPlaylistsByName(final String name) {
+    return playlistIndex.getAll(name);
+  }
+
+  /**
+   * Retrieves a podcast from the library by its name.
+   *
+   * This method looks up the name in the podcasts index and returns the first podcast added to the
+   * library with the input name.
+   *
+   * @param name The name of the podcast to retrieve.
+   * @return The podcast with the input name. If no such podcast is found, it returns null.
+   */
+  public PodcastInput getPodcastByName(final String name) {
+    return podcastIndex.getFirst(name);
+  }
+
+  /**
+   * Adds a song at the end of the library songs and indexes it.
+   *
+   * @param song The song to be added.
+   */
+  public void addSong(final SongInput song) {
+    songs.add(song);
+    songIndex.add(song);
+    songSearchIndex.add(song);
+    lyricsIndex.add(song);
+    songNames.add(song);
+    songArtists.add(song);
+    markChanged();
+  }
+
+  /**
+   * Removes the first song equal to the given one from the library songs and from the index.
+   *
+   * @param song The song to be removed.
+   */
+  public void removeSong(final SongInput song) {
+    int position = songs.indexOf(song);
+
+    if (position < 0) {
+      return;
+    }
+
+    unindexSong(songs.remove(position));
+    songIndex.remove(song);
+    markChanged();
+  }
+
+  /**
+   * Removes all the songs equal to one of the given ones from the library songs and from the
+   * index.
+   *
+   * @param removedSongs The songs to be removed.
+   */
+  public void removeAllSongs(final Collection<SongInput> removedSongs) {
+    songs.removeIf(song -> removedSongs.contains(song) && unindexSong(song));
+    songIndex.removeAll(removedSongs);
+    markChanged();
+  }
+
+  /**
+   * Removes all the songs matching the given predicate from the library songs and from the index.
+   *
+   * @param filter The predicate which returns true for the songs to be removed.
+   */
+  public void removeSongsIf(final Predicate<SongInput> filter) {
+    songs.removeIf(song -> filter.test(song) && unindexSong(song));
+    songIndex.removeIf(filter);
+    markChanged();
+  }
+
+  /**
+   * Removes a song which is being dropped from the library list from the search, lyrics, name and
+   * artist indexes. The search and lyrics indexes track the songs by identity, so they are told
+   * about exactly the removed objects.
+   *
+   * @param song The removed song.
+   * @return Always true, so that it can be chained into the predicate of removeIf.
+   */
+  private boolean unindexSong(final SongInput song) {
+    songSearchIndex.remove(song);
+    lyricsIndex.remove(song);
+    songNames.remove(song);
+    songArtists.remove(song);
+    return true;
+  }
+
+  /**
+   * Returns the songs a song search with the given filters has to check, in library order. The
+   * list is narrowed down with the search, prefix and lyrics indexes, then the compiled filters
+   * drop the songs which cannot match, in parallel shards for very large lists, but the search
+   * still has to apply every filter. The songs of a lyrics query filter are already verified,
+   * since the search bar does not know that filter.
+   *
+   * @param filters The compiled filters of the search command.
+   * @return The candidate songs, or all the library songs if no filter is set.
+   */
+  public List<SongInput> getSongCandidates(final CompiledFilters filters) {
+    if (filters.isEmpty()) {
+      return songs;
+    }
+
+    List<SongInput> candidates = songSearchIndex.candidates(filters);
+    candidates = intersect(candidates, withNamePrefix(songNames, filters.getName()));
+
+    if (filters.getLyrics() != null) {
+      candidates = intersect(candidates, lyricsIndex.candidates(filters.getLyrics()));
+    }
+
+    if (filters.getLyricsQuery() != null) {
+      candidates = intersect(candidates, lyricsIndex.find(filters.getLyricsQuery()));
+    }
+
+    if (candidates == null) {
+      candidates = songs;
+    }
+
+    return EngineContext.current().getShardedSearch()
+        .filter(candidates, filters.songPredicate());
+  }
+
+  /**
+   * Intersects two candidate lists, keeping the library order. A null list stands for all the
+   * songs, so it does not narrow down the other one.
+   */
+  private static List<SongInput> intersect(
+      final List<SongInput> first, final List<SongInput> second) {
+    if (first == null || second == null) {
+      return first == null ? second : first;
+    }
+
+    List<SongInput> driver = first.size() <= second.size() ? first : second;
+    Set<SongInput> other = Collections.newSetFromMap(new IdentityHashMap<>());
+    other.addAll(driver == first ? second : first);
+
+    List<SongInput> intersection = new ArrayList<>();
+    for (SongInput song : driver) {
+      if (other.contains(song)) {
+        intersection.add(song);
       }
     }
 
-    return null;
+    return intersection;
+  }
+
+  /**
+   * Returns the podcasts a podcast search with the given filters has to check, in library order.
+   *
+   * @param filters The compiled filters of the search command.
+   * @return The podcasts which can match the name and owner filters, or all the library podcasts
+   *     if no filter is set.
+   */
+  public List<PodcastInput> getPodcastCandidates(final CompiledFilters filters) {
+    if (filters.isEmpty()) {
+      return podcasts;
+    }
+
+    List<PodcastInput> named = withNamePrefix(podcastNames, filters.getName());
+
+    if (named == null) {
+      named = podcasts;
+    }
+
+    return EngineContext.current().getShardedSearch()
+        .filter(named, filters.podcastPredicate());
+  }
+
+  /**
+   * Tells whether a playlist search with the given filters finds anything: whether a playlist
+   * visible to the user who searches matches the filters. The lookup stops at the first match.
+   *
+   * @param filters The compiled filters of the search command.
+   * @param viewer The username of the user who searches.
+   * @return True if a playlist matches the search.
+   */
+  public boolean hasPlaylistMatches(final CompiledFilters filters, final String viewer) {
+    return playlistSearchIndex.anyCandidate(filters, viewer, filters.playlistPredicate());
+  }
+
+  private static <T> List<T> withNamePrefix(final PrefixIndex<T> index, final String name) {
+    if (name == null) {
+      return null;
+    }
+
+    return index.withPrefix(name);
+  }
+
+  /**
+   * Adds an album at the end of the library albums and indexes it.
+   *
+   * @param album The album to be added.
+   */
+  public void addAlbum(final AlbumInput album) {
+    albums.add(album);
+    albumIndex.add(album);
+    albumNames.add(album);
+    artistNames.touch(album.getOwner());
+    markChanged();
+  }
+
+  /**
+   * Removes the given album from the library albums and from the index.
+   *
+   * @param album The album to be removed.
+   */
+  public void removeAlbum(final AlbumInput album) {
+    albums.remove(album);
+    albumIndex.remove(album);
+    albumNames.remove(album);
+    artistNames.touch(album.getOwner());
+    markChanged();
+  }
+
+  /**
+   * Removes all the albums matching the given predicate from the library albums and from the
+   * index.
+   *
+   * @param filter The predicate which returns true for the albums to be removed.
+   */
+  public void removeAlbumsIf(final Predicate<AlbumInput> filter) {
+    albums.removeIf(album -> {
+      if (!filter.test(album)) {
+        return false;
+      }
+
+      artistNames.touch(album.getOwner());
+      return true;
+    });
+    albumIndex.removeIf(filter);
+    albumNames.removeIf(filter);
+    markChanged();
+  }
+
+  /**
+   * Records that the likes of a library song changed, which ranks again the song, its album and
+   * its artist in the name indexes.
+   *
+   * @param song The song whose likes changed.
+   */
+  public void songLikesChanged(final SongInput song) {
+    songNames.touch(song.getName());
+    albumNames.touch(song.getAlbum());
+    artistNames.touch(song.getArtist());
+  }
+
+  /**
+   * Records that the subscribers of a host changed, which ranks the host again in the name index.
+   *
+   * @param host The host whose subscribers changed.
+   */
+  public void hostSubscribersChanged(final HostInput host) {
+    hostNames.touch(host.getUsername());
+  }
+
+  /**
+   * Adds a playlist at the end of the library playlists and indexes it.
+   *
+   * @param playlist The playlist to be added.
+   */
+  public void addPlaylist(final PlaylistInput playlist) {
+    playlists.add(playlist);
+    playlistIndex.add(playlist);
+    playlistSearchIndex.add(playlist);
+    playlistNames.add(playlist);
+    markChanged();
+  }
+
+  /**
+   * Moves a library playlist whose visibility or followers changed in place to its new entries of
+   * the playlist search index, and moves the library to a new version.
+   *
+   * @param playlist The changed playlist.
+   */
+  public void updatePlaylist(final PlaylistInput playlist) {
+    playlistSearchIndex.update(playlist);
+    playlistNames.touch(playlist.getName());
+    markChanged();
+  }
+
+  /**
+   * Removes the given playlist from the library playlists and from the index.
+   *
+   * @param playlist The playlist to be removed.
+   */
+  public void removePlaylist(final PlaylistInput playlist) {
+    playlists.remove(playlist);
+    playlistIndex.remove(playlist);
+    playlistSearchIndex.remove(playlist);
+    playlistNames.remove(playlist);
+    markChanged();
+  }
+
+  /**
+   * Adds a podcast at the end of the library podcasts and indexes it.
+   *
+   * @param podcast The podcast to be added.
+   */
+  public void addPodcast(final PodcastInput podcast) {
+    podcasts.add(podcast);
+    podcastIndex.add(podcast);
+    podcastNames.add(podcast);
+    markChanged();
+  }
+
+  /**
+   * Removes the given podcast from the library podcasts and from the index.
+   *
+   * @param podcast The podcast to be removed.
+   */
+  public void removePodcast(final PodcastInput podcast) {
+    podcasts.remove(podcast);
+    podcastIndex.remove(podcast);
+    podcastNames.remove(podcast);
+    markChanged();
+  }
+
+  /**
+   * Removes all the podcasts matching the given predicate from the library podcasts and from the
+   * index.
+   *
+   * @param filter The predicate which returns true for the podcasts to be removed.
+   */
+  public void removePodcastsIf(final Predicate<PodcastInput> filter) {
+    podcasts.removeIf(filter);
+    podcastIndex.removeIf(filter);
+    podcastNames.removeIf(filter);
+    markChanged();
+  }
+
+  /**
+   * Adds a normal user at the end of the library users and registers it in the account directory.
+   *
+   * @param user The user to be added.
+   */
+  public void addUser(final UserInput user) {
+    users.add(user);
+    accountDirectory.register(user);
+    markChanged();
+  }
+
+  /**
+   * Removes the given normal user from the library users and from the account directory.
+   *
+   * @param user The user to be removed.
+   */
+  public void removeUser(final UserInput user) {
+    users.remove(user);
+    accountDirectory.unregister(user);
+    markChanged();
+  }
+
+  /**
+   * Adds an artist at the end of the library artists and registers it in the account directory.
+   *
+   * @param artist The artist to be added.
+   */
+  public void addArtist(final ArtistInput artist) {
+    artists.add(artist);
+    accountDirectory.register(artist);
+    artistNames.add(artist);
+    markChanged();
+  }
+
+  /**
+   * Removes the given artist from the library artists and from the account directory.
+   *
+   * @param artist The artist to be removed.
+   */
+  public void removeArtist(final ArtistInput artist) {
+    artists.remove(artist);
+    accountDirectory.unregister(artist);
+    artistNames.remove(artist);
+    markChanged();
+  }
+
+  /**
+   * Adds a host at the end of the library hosts and registers it in the account directory.
+   *
+   * @param host The host to be added.
+   */
+  public void addHost(final HostInput host) {
+    hosts.add(host);
+    accountDirectory.register(host);
+    hostNames.add(host);
+    markChanged();
+  }
+
+  /**
+   * Removes the given host from the library hosts and from the account directory.
+   *
+   * @param host The host to be removed.
+   */
+  public void removeHost(final HostInput host) {
+    hosts.remove(host);
+    accountDirectory.unregister(host);
+    hostNames.remove(host);
+    markChanged();
   }
 }
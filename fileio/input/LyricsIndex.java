@@ -0,0 +1,287 @@
+package fileio.input;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A trigram index over the lyrics of the library songs.
+ *
+ * <p>The lyrics are indexed in lower case. A song can only contain a piece of text if its lyrics
+ * contain every trigram of that text, so intersecting the posting lists of the trigrams of a
+ * lyrics filter leaves a small superset of the matching songs, which the search then verifies.
+ * Texts shorter than a trigram cannot be narrowed down.
+ *
+ * <p>Songs get increasing ids in the order they are added, which is the order of the library
+ * list, and the posting lists are sorted arrays of ids. Removed songs only leave a hole in the id
+ * table; the index is compacted once the holes outnumber the songs.
+ */
+public final class LyricsIndex {
+  private static final int GRAM = 3;
+  private static final int CHAR_BITS = 16;
+  private static final int INITIAL_POSTING = 4;
+  private static final int MIN_COMPACTION = 64;
+
+  private static final int OBJECT_BYTES = 16;
+  private static final int REFERENCE_BYTES = 8;
+  private static final int MAP_ENTRY_BYTES = 48;
+
+  private static final Pattern TERMS = Pattern.compile("\"([^\"]*)\"|(\\S+)");
+
+  private final Map<Long, Posting> postings = new HashMap<>();
+  private final Map<SongInput, Integer> ids = new IdentityHashMap<>();
+  private final List<SongInput> songs = new ArrayList<>();
+  private int removed;
+
+  private static final class Posting {
+    private int[] ids = new int[INITIAL_POSTING];
+    private int size;
+
+    private void add(final int id) {
+      if (size > 0 && ids[size - 1] == id) {
+        return;
+      }
+
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+
+      ids[size++] = id;
+    }
+
+    private boolean contains(final int id) {
+      return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+  }
+
+  /**
+   * Drops every entry of the index and indexes the given songs from scratch, in list order.
+   *
+   * @param library The songs to be indexed. A null list leaves the index empty.
+   */
+  public void rebuild(final Collection<SongInput> library) {
+    postings.clear();
+    ids.clear();
+    songs.clear();
+    removed = 0;
+
+    if (library == null) {
+      return;
+    }
+
+    for (SongInput song : library) {
+      add(song);
+    }
+  }
+
+  /**
+   * Indexes the lyrics of a song appended at the end of the library list.
+   *
+   * @param song The song to be indexed.
+   */
+  public void add(final SongInput song) {
+    int id = songs.size();
+    songs.add(song);
+    ids.put(song, id);
+
+    String lyrics = normalize(song.getLyrics());
+    for (int i = 0; i + GRAM <= lyrics.length(); i++) {
+      postings.computeIfAbsent(trigram(lyrics, i), key -> new Posting()).add(id);
+    }
+  }
+
+  /**
+   * Removes exactly the given song object from the index.
+   *
+   * @param song The song to be removed.
+   */
+  public void remove(final SongInput song) {
+    Integer id = ids.remove(song);
+
+    if (id == null) {
+      return;
+    }
+
+    songs.set(id, null);
+    removed++;
+
+    if (removed >= MIN_COMPACTION && removed > ids.size()) {
+      List<SongInput> live = new ArrayList<>(ids.size());
+      for (SongInput remaining : songs) {
+        if (remaining != null) {
+          live.add(remaining);
+        }
+      }
+
+      rebuild(live);
+    }
+  }
+
+  /**
+   * Returns the songs whose lyrics can contain the given text, ignoring case, in list order.
+   *
+   * @param text The text of the lyrics filter.
+   * @return The candidate songs, or null if the text is too short to narrow down the songs.
+   */
+  public List<SongInput> candidates(final String text) {
+    String query = normalize(text);
+
+    if (query.length() < GRAM) {
+      return null;
+    }
+
+    Set<Long> grams = new LinkedHashSet<>();
+    for (int i = 0; i + GRAM <= query.length(); i++) {
+      grams.add(trigram(query, i));
+    }
+
+    List<Posting> lists = new ArrayList<>(grams.size());
+    for (Long gram : grams) {
+      Posting posting = postings.get(gram);
+      if (posting == null) {
+        return new ArrayList<>();
+      }
+
+      lists.add(posting);
+    }
+
+    lists.sort(Comparator.comparingInt(posting -> posting.size));
+
+    Posting smallest = lists.get(0);
+    List<SongInput> candidates = new ArrayList<>();
+
+    for (int i = 0; i < smallest.size; i++) {
+      int id = smallest.ids[i];
+      SongInput song = songs.get(id);
+
+      if (song != null && inAll(lists, id)) {
+        candidates.add(song);
+      }
+    }
+
+    return candidates;
+  }
+
+  /**
+   * Returns the songs whose lyrics match a query of several terms, ignoring case, in list order.
+   * Words separated by spaces must all appear in the lyrics, in any order, and a text between
+   * double quotes must appear as a phrase. Unlike the candidates, the matches are verified.
+   *
+   * @param query The query, for example {@code love "all night"}.
+   * @return The songs matching every term of the query. An empty query matches every song.
+   */
+  public List<SongInput> find(final String query) {
+    List<String> terms = new ArrayList<>();
+    Matcher matcher = TERMS.matcher(normalize(query));
+
+    while (matcher.find()) {
+      String term = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+
+    List<SongInput> matches = null;
+    terms.sort(Comparator.comparingInt(String::length).reversed());
+
+    for (String term : terms) {
+      List<SongInput> scanned = matches;
+      if (scanned == null) {
+        scanned = candidates(term);
+      }
+      if (scanned == null) {
+        scanned = liveSongs();
+      }
+
+      List<SongInput> verified = new ArrayList<>();
+      for (SongInput song : scanned) {
+        if (normalize(song.getLyrics()).contains(term)) {
+          verified.add(song);
+        }
+      }
+
+      matches = verified;
+    }
+
+    if (matches == null) {
+      return liveSongs();
+    }
+
+    return matches;
+  }
+
+  /**
+   * Returns an estimate of the heap used by the index: the posting arrays, the trigram map and
+   * the id tables. Object headers and map entries are counted with typical 64-bit JVM sizes.
+   *
+   * @return The estimated number of bytes.
+   */
+  public long estimateMemoryBytes() {
+    long bytes = 0;
+
+    for (Posting posting : postings.values()) {
+      bytes += MAP_ENTRY_BYTES + OBJECT_BYTES + OBJECT_BYTES
+          + OBJECT_BYTES + (long) Integer.BYTES * posting.ids.length;
+    }
+
+    bytes += (long) REFERENCE_BYTES * songs.size();
+    bytes += (long) (MAP_ENTRY_BYTES + OBJECT_BYTES) * ids.size();
+
+    return bytes;
+  }
+
+  /**
+   * Returns the number of distinct trigrams in the index.
+   *
+   * @return The number of posting lists.
+   */
+  public int getTrigramCount() {
+    return postings.size();
+  }
+
+  private List<SongInput> liveSongs() {
+    List<SongInput> live = new ArrayList<>(ids.size());
+
+    for (SongInput song : songs) {
+      if (song != null) {
+        live.add(song);
+      }
+    }
+
+    return live;
+  }
+
+  private static boolean inAll(final List<Posting> lists, final int id) {
+    for (int i = 1; i < lists.size(); i++) {
+      if (!lists.get(i).contains(id)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static long trigram(final String text, final int start) {
+    return (long) text.charAt(start) << (2 * CHAR_BITS)
+        | (long) text.charAt(start + 1) << CHAR_BITS
+        | text.charAt(start + 2);
+  }
+
+  private static String normalize(final String text) {
+    if (text == null) {
+      return "";
+    }
+
+    return text.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,140 @@
+package fileio.input;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A name-keyed index over one of the library lists.
+ *
+ * <p>Names are not unique in the library (two artists can release songs with the same name), so
+ * every key maps to the entries carrying that name, kept in the same relative order as in the
+ * indexed list. This way the first entry of a bucket is exactly the element a linear scan over
+ * the list would have returned.
+ *
+ * @param <T> The type of the indexed entries.
+ */
+public final class NameIndex<T> {
+  private final Function<T, String> keyExtractor;
+  private final Map<String, List<T>> buckets = new HashMap<>();
+
+  public NameIndex(final Function<T, String> keyExtractor) {
+    this.keyExtractor = keyExtractor;
+  }
+
+  /**
+   * Drops every entry of the index and indexes the given list from scratch, in list order.
+   *
+   * @param items The list to be indexed. A null list leaves the index empty.
+   */
+  public void rebuild(final Collection<? extends T> items) {
+    buckets.clear();
+
+    if (items == null) {
+      return;
+    }
+
+    for (T item : items) {
+      add(item);
+    }
+  }
+
+  /**
+   * Appends an entry at the end of the bucket of its name, mirroring an add at the end of the
+   * indexed list.
+   *
+   * @param item The entry to be indexed.
+   */
+  public void add(final T item) {
+    buckets.computeIfAbsent(keyExtractor.apply(item), key -> new ArrayList<>()).add(item);
+  }
+
+  /**
+   * Removes the first entry equal to the given one, mirroring List.remove on the indexed list.
+   *
+   * @param item The entry to be removed.
+   */
+  public void remove(final T item) {
+    String key = keyExtractor.apply(item);
+    List<T> bucket = buckets.get(key);
+
+    if (bucket == null) {
+      return;
+    }
+
+    bucket.remove(item);
+    if (bucket.isEmpty()) {
+      buckets.remove(key);
+    }
+  }
+
+  /**
+   * Removes all the entries equal to one of the given ones, mirroring List.removeAll on the
+   * indexed list.
+   *
+   * @param items The entries to be removed.
+   */
+  public void removeAll(final Collection<? extends T> items) {
+    for (T item : items) {
+      String key = keyExtractor.apply(item);
+      List<T> bucket = buckets.get(key);
+
+      if (bucket != null) {
+        bucket.removeAll(Collections.singleton(item));
+        if (bucket.isEmpty()) {
+          buckets.remove(key);
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes all the entries matching the given predicate, mirroring List.removeIf on the indexed
+   * list.
+   *
+   * @param filter The predicate which returns true for the entries to be removed.
+   */
+  public void removeIf(final Predicate<? super T> filter) {
+    buckets.values().removeIf(bucket -> {
+      bucket.removeIf(filter);
+      return bucket.isEmpty();
+    });
+  }
+
+  /**
+   * Returns the first indexed entry with the given name.
+   *
+   * @param name The name to look up.
+   * @return The first entry with the given name, or null if there is none.
+   */
+  public T getFirst(final String name) {
+    List<T> bucket = buckets.get(name);
+
+    if (bucket == null) {
+      return null;
+    }
+
+    return bucket.get(0);
+  }
+
+  /**
+   * Returns all the indexed entries with the given name, in list order.
+   *
+   * @param name The name to look up.
+   * @return An unmodifiable view of the entries with the given name, empty if there is none.
+   */
+  public List<T> getAll(final String name) {
+    List<T> bucket = buckets.get(name);
+
+    if (bucket == null) {
+      return Collections.emptyList();
+    }
+
+    return Collections.unmodifiableList(bucket);
+  }
+}
@@ -4,14 +4,17 @@ import commands.jsonReader.Command;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import commands.constants.StatusEnums;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import metrics.events.NotificationEvent;
 import notifications.BalanceObserver;
 import notifications.Subject;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 @Getter
 @Setter
@@ -26,6 +29,10 @@ public class PlaylistInput implements Subject {
     private String owner;
     @JsonIgnore
     private Integer dateCreated;
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final TimelineCache timelines = new TimelineCache();
 
     public PlaylistInput(final Command command) {
         this.visibility = StatusEnums.VisibilityEnum.PUBLIC.getName();
@@ -80,65 +87,105 @@ public class PlaylistInput implements Subject {
     }
 
     /**
-     * The method iterates over all playlists in the library. If it finds a playlist with the same
-     * name as the one provided, it returns the playlist. If it does not find a matching playlist,
-     * it returns null.
+     * The method looks up the name in the playlists index of the library. If it finds a playlist
+     * with the same name as the one provided, it returns the playlist. If it does not find a
+     * matching playlist, it returns null.
      *
      * @param name The name of the playlist to be retrieved.
      * @return A PlaylistInput object representing the retrieved playlist, or null if no matching
      * playlist is found.
      */
     public static PlaylistInput getPlaylistByName(final String name) {
-        for (PlaylistInput playlist : LibraryInput.getInstance().getPlaylists()) {
-            if (playlist.getName().equals(name)) {
-                return playlist;
-            }
+        return LibraryInput.getInstance().getPlaylistByName(name);
+    }
+
+    /**
+     * The method replaces the songs of the playlist. The durations kept for the old songs are
+     * dropped, so a list of the same size is not mistaken for the old one.
+     *
+     * @param songs The new songs of the playlist.
+     */
+    public void setSongs(final List<SongInput> songs) {
+        this.songs = songs;
+        timelines.invalidate();
+    }
+
+    /**
+     * The method appends a song to the playlist and updates the total duration of the playlist.
+     *
+     * @param song The song to be added.
+     */
+    public void addSong(final SongInput song) {
+        this.getSongs().add(song);
+        timelines.added(this.getSongs(), song);
+    }
+
+    /**
+     * The method removes a song from the playlist. The timeline of the playlist order is rebuilt
+     * at its next use, since the indexes of the following songs change.
+     *
+     * @param song The song to be removed.
+     * @return true if the song was in the playlist; false otherwise.
+     */
+    public boolean removeSong(final SongInput song) {
+        boolean removed = this.getSongs().remove(song);
+
+        if (removed) {
+            timelines.removed(this.getSongs(), song);
         }
 
-        return null;
+        return removed;
     }
 
     /**
-     * The method iterates over all songs in the playlist. For each song, it adds the duration of
-     * the song to a running total. Finally, it returns the total duration.
+     * The method removes all the songs of the playlist which satisfy the given predicate.
      *
-     * @return An Integer representing the total duration of all songs in the playlist.
+     * @param filter The predicate which returns true for the songs to be removed.
+     * @return true if any song was removed; false otherwise.
      */
-    public Integer getSummedDurationsPlaylist() {
-        Integer durationSum = 0;
-        for (SongInput song : this.getSongs()) {
-            durationSum += song.getDuration();
+    public boolean removeSongsIf(final Predicate<? super SongInput> filter) {
+        boolean removed = this.getSongs().removeIf(filter);
+
+        if (removed) {
+            timelines.invalidate();
         }
 
-        return durationSum;
+        return removed;
     }
 
     /**
-     * The method iterates over the currentShuffleArray. For each index in the array, it retrieves
-     * the corresponding song from the playlist and adds its duration to a running total. Finally,
-     * it returns the total duration.
+     * The method returns the total duration of the songs in the playlist. The total is kept up to
+     * date as songs are added and removed, so it is only summed again after the song list is
+     * replaced or changed directly.
+     *
+     * @return An Integer representing the total duration of all songs in the playlist.
+     */
+    public Integer getSummedDurationsPlaylist() {
+        return timelines.total(this.getSongs());
+    }
+
+    /**
+     * The method returns the total duration of the timeline of the currentShuffleArray.
      *
      * @param currentShuffleArray An ArrayList of Integers representing the order of songs in the
      *                            shuffled playlist.
      * @return An Integer representing the total duration of all songs in the shuffled playlist.
      */
     public Integer getShuffleSummedDurationsPlaylist(final List<Integer> currentShuffleArray) {
-        Integer durationSum = 0;
+        DurationTimeline timeline = getShuffleTimeline(currentShuffleArray);
 
-        for (Integer integer : currentShuffleArray) {
-            durationSum += this.getSongs().get(integer).getDuration();
+        if (timeline.size() < currentShuffleArray.size()) {
+            Objects.checkIndex(currentShuffleArray.get(timeline.size()), this.getSongs().size());
         }
 
-        return durationSum;
+        return timeline.total();
     }
 
     /**
-     * The method first calculates the total duration of the playlist. It then iterates over the
-     * currentShuffleArray. For each index in the array, it retrieves the corresponding song from
-     * the playlist. If the sum of the durations of the songs so far and the duration of the
-     * current song is greater than the remainder of the current timestamp divided by the total
-     * duration of the playlist, it returns the current song. If it does not find a currently
-     * playing song, it returns null.
+     * The method looks up the remainder of the current timestamp divided by the total duration of
+     * the playlist in the timeline of the currentShuffleArray. It returns the first song whose
+     * end, in the shuffled order, is after that moment. If it does not find a currently playing
+     * song, it returns null.
      *
      * @param currentTimestamp    The current timestamp.
      * @param currentShuffleArray An ArrayList of Integers representing the order of songs in the
@@ -148,29 +195,21 @@ public class PlaylistInput implements Subject {
      */
     public SongInput getShuffleCurrentPlayingSong(
             final Integer currentTimestamp, final List<Integer> currentShuffleArray) {
-        int durationSum = 0;
         Integer playlistDimension = this.getSummedDurationsPlaylist();
 
-        for (Integer integer : currentShuffleArray) {
-            SongInput song = this.getSongs().get(integer);
-
-            if (durationSum + song.getDuration() > currentTimestamp % playlistDimension) {
-                return song;
-            }
-
-            durationSum += song.getDuration();
+        if (playlistDimension == 0) {
+            return null;
         }
 
-        return null;
+        return songAt(locate(currentTimestamp % playlistDimension, currentShuffleArray),
+                currentShuffleArray);
     }
 
     /**
      * The method first calculates the remainder of the current timestamp divided by the total
-     * duration of the playlist. It then iterates over the currentShuffleArray. For each index in
-     * the array, it retrieves the corresponding song from the playlist. If the sum of the
-     * durations of the songs so far and the duration of the current song is greater than the
-     * calculated remainder, it returns the sum of the durations of the songs so far. If it does
-     * not find any played songs, it returns 0.
+     * duration of the playlist. It then looks up that moment in the timeline of the
+     * currentShuffleArray and returns the sum of the durations of the songs played before the
+     * current one. If it does not find any played songs, it returns 0.
      *
      * @param currentTimestamp    The current timestamp.
      * @param currentShuffleArray An ArrayList of Integers representing the order of songs in the
@@ -179,24 +218,55 @@ public class PlaylistInput implements Subject {
      */
     public Integer getShufflePlayedSongsTotalDuration(
             final Integer currentTimestamp, final List<Integer> currentShuffleArray) {
+        DurationTimeline.Position position =
+                getShufflePosition(currentTimestamp, currentShuffleArray);
 
-        Integer durationSum = 0;
+        return position == null ? 0 : position.start();
+    }
 
+    /**
+     * The method looks up the remainder of the current timestamp divided by the total duration of
+     * the playlist in the timeline of the currentShuffleArray. It returns the position of the
+     * currently playing song in the shuffled order, the moment it started and the time elapsed
+     * since then.
+     *
+     * @param currentTimestamp    The current timestamp.
+     * @param currentShuffleArray An ArrayList of Integers representing the order of songs in the
+     *                            shuffled playlist.
+     * @return The position of the currently playing song, or null if the playlist is empty or no
+     * song is playing.
+     */
+    public DurationTimeline.Position getShufflePosition(
+            final Integer currentTimestamp, final List<Integer> currentShuffleArray) {
         if (this.getSummedDurationsPlaylist() == 0) {
-            return 0;
+            return null;
         }
 
-        int time = currentTimestamp % this.getSummedDurationsPlaylist();
+        return getShufflePosition(currentTimestamp, currentShuffleArray,
+                getShuffleTimeline(currentShuffleArray));
+    }
 
-        for (Integer integer : currentShuffleArray) {
-            SongInput song = this.getSongs().get(integer);
-            if (durationSum + song.getDuration() > time) {
-                return durationSum;
-            }
-            durationSum += song.getDuration();
+    /**
+     * The method looks up the remainder of the current timestamp divided by the total duration of
+     * the playlist in a timeline of the currentShuffleArray kept by the caller, which must be
+     * built for the current version of the playlist.
+     *
+     * @param currentTimestamp    The current timestamp.
+     * @param currentShuffleArray An ArrayList of Integers representing the order of songs in the
+     *                            shuffled playlist.
+     * @param timeline            The timeline of the currentShuffleArray.
+     * @return The position of the currently playing song, or null if the playlist is empty or no
+     * song is playing.
+     */
+    public DurationTimeline.Position getShufflePosition(
+            final Integer currentTimestamp, final List<Integer> currentShuffleArray,
+            final DurationTimeline timeline) {
+        if (this.getSummedDurationsPlaylist() == 0) {
+            return null;
         }
 
-        return 0;
+        return locate(currentTimestamp % this.getSummedDurationsPlaylist(), currentShuffleArray,
+                timeline);
     }
 
     /**
@@ -275,19 +345,27 @@ public class PlaylistInput implements Subject {
      */
     @Override
     public void notifyObservers(final String update) {
+        NotificationEvent event = new NotificationEvent();
+        event.begin();
+
         for (BalanceObserver observer : followersList) {
             observer.update(update);
         }
+
+        if (event.shouldCommit()) {
+            event.setPublisher(name);
+            event.setSubscribers(followersList.size());
+            event.commit();
+        }
     }
 
     /**
      * Retrieves the song that is currently playing based on the current timestamp and the shuffle
      * array.
      *
-     * This method iterates over the shuffle array and for each song, it checks if the sum of the
-     * durations of the songs so far plus the duration of the current song is greater than the
-     * current timestamp. If it is, it returns the current song. If it iterates over all the songs
-     * and does not find a song that meets this condition, it returns null.
+     * This method looks up the current timestamp in the timeline of the shuffle array and
+     * returns the first song whose end is after it. If the shuffle array ends before the current
+     * timestamp, it returns null.
      *
      * @param currentTimestamp The current timestamp.
      * @param currentShuffleArray The shuffle array.
@@ -295,19 +373,53 @@ public class PlaylistInput implements Subject {
      */
     public SongInput getCurrentPlayingSong(
             final Integer currentTimestamp, final List<Integer> currentShuffleArray) {
-        int durationSum = 0;
-        Integer playlistDimension = this.getSummedDurationsPlaylist();
+        return songAt(locate(currentTimestamp, currentShuffleArray), currentShuffleArray);
+    }
 
-        for (Integer integer : currentShuffleArray) {
-            SongInput song = this.getSongs().get(integer);
+    /**
+     * The method returns the timeline of the songs in the order of the currentShuffleArray. The
+     * timeline of the playlist order is shared by every player and kept until a song is added or
+     * removed; the timeline of a shuffled order is built for each call, so the caller which owns
+     * that order should keep it for as long as the timeline version does not change.
+     *
+     * @param currentShuffleArray An ArrayList of Integers representing the order of songs in the
+     *                            shuffled playlist.
+     * @return The duration timeline of the shuffled order.
+     */
+    public DurationTimeline getShuffleTimeline(final List<Integer> currentShuffleArray) {
+        return timelines.timeline(this.getSongs(), currentShuffleArray);
+    }
 
-            if (durationSum + song.getDuration() > currentTimestamp) {
-                return song;
-            }
+    /**
+     * The method returns the version of the songs of the playlist the timelines are built from,
+     * which changes whenever a song is added or removed.
+     *
+     * @return The version of the timelines of the playlist.
+     */
+    public int getTimelineVersion() {
+        return timelines.version(this.getSongs());
+    }
+
+    /**
+     * Looks up a moment in the timeline of the order. Like a walk over the order would, it fails
+     * when it reaches an index which is no longer in the playlist.
+     */
+    private DurationTimeline.Position locate(final int time, final List<Integer> order) {
+        return locate(time, order, getShuffleTimeline(order));
+    }
+
+    private DurationTimeline.Position locate(
+            final int time, final List<Integer> order, final DurationTimeline timeline) {
+        DurationTimeline.Position position = timeline.locate(time);
 
-            durationSum += song.getDuration();
+        if (position == null && timeline.size() < order.size()) {
+            Objects.checkIndex(order.get(timeline.size()), this.getSongs().size());
         }
 
-        return null;
+        return position;
+    }
+
+    private SongInput songAt(final DurationTimeline.Position position, final List<Integer> order) {
+        return position == null ? null : this.getSongs().get(order.get(position.index()));
     }
 }
@@ -0,0 +1,303 @@
+package fileio.input;
+
+import commands.constants.StatusEnums;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * An index over the library playlists, used to narrow down the playlists a search has to check.
+ *
+ * <p>The playlists are partitioned by visibility: the public ones are kept in a single posting
+ * list and the private ones in a posting list per owner, so the playlists visible to a user are
+ * the public list merged with the private list of that user. Every playlist is also kept in the
+ * posting list of its owner, and under its follower count in a sorted map, so that a
+ * "&lt;count" or "&gt;count" filter is a range scan. The owners are compared in lower case and
+ * the follower bounds are inclusive, which makes the candidates a superset of the playlists
+ * matching the filters.
+ *
+ * <p>The visibility and the followers of a playlist change in place, so the index remembers
+ * where each playlist was posted, and {@link #update(PlaylistInput)} must be called after such a
+ * change to move the playlist to its new posting lists. Entries are tracked by identity, in the
+ * order in which they were added, which is the order of the library list.
+ */
+public final class PlaylistSearchIndex {
+  private final Map<PlaylistInput, Posted> posted = new IdentityHashMap<>();
+  private final NavigableMap<Long, PlaylistInput> publicPlaylists = new TreeMap<>();
+  private final Map<String, NavigableMap<Long, PlaylistInput>> privateByOwner = new HashMap<>();
+  private final Map<String, NavigableMap<Long, PlaylistInput>> byOwner = new HashMap<>();
+  private final NavigableMap<Integer, NavigableMap<Long, PlaylistInput>> followers =
+      new TreeMap<>();
+  private long nextPosition;
+
+  /**
+   * Where a playlist was posted: its position and the values it was indexed under.
+   */
+  private record Posted(long position, boolean visible, String owner, int followers) {
+  }
+
+  /**
+   * Drops every entry of the index and indexes the given playlists from scratch, in list order.
+   *
+   * @param playlists The playlists to be indexed. A null list leaves the index empty.
+   */
+  public void rebuild(final Collection<PlaylistInput> playlists) {
+    posted.clear();
+    publicPlaylists.clear();
+    privateByOwner.clear();
+    byOwner.clear();
+    followers.clear();
+    nextPosition = 0;
+
+    if (playlists == null) {
+      return;
+    }
+
+    for (PlaylistInput playlist : playlists) {
+      add(playlist);
+    }
+  }
+
+  /**
+   * Indexes a playlist appended at the end of the library list.
+   *
+   * @param playlist The playlist to be indexed.
+   */
+  public void add(final PlaylistInput playlist) {
+    post(playlist, nextPosition++);
+  }
+
+  /**
+   * Removes exactly the given playlist object from the index.
+   *
+   * @param playlist The playlist to be removed.
+   */
+  public void remove(final PlaylistInput playlist) {
+    Posted entry = posted.remove(playlist);
+
+    if (entry == null) {
+      return;
+    }
+
+    if (entry.visible()) {
+      publicPlaylists.remove(entry.position());
+    } else {
+      unpost(privateByOwner, entry.owner(), entry.position());
+    }
+
+    unpost(byOwner, normalize(entry.owner()), entry.position());
+
+    NavigableMap<Long, PlaylistInput> count = followers.get(entry.followers());
+    if (count != null) {
+      count.remove(entry.position());
+      if (count.isEmpty()) {
+        followers.remove(entry.followers());
+      }
+    }
+  }
+
+  /**
+   * Moves a playlist to the posting lists of its current visibility and follower count, keeping
+   * its position. Playlists which are not indexed are left out.
+   *
+   * @param playlist The playlist whose visibility or followers changed.
+   */
+  public void update(final PlaylistInput playlist) {
+    Posted entry = posted.get(playlist);
+
+    if (entry == null) {
+      return;
+    }
+
+    remove(playlist);
+    post(playlist, entry.position());
+  }
+
+  /**
+   * Returns the playlists visible to the given user which can match the owner and followers
+   * filters of a playlist search, in list order. The name filter is not indexed and has to be
+   * checked by the search.
+   *
+   * @param filters The compiled filters of the search command.
+   * @param viewer The username of the user who searches.
+   * @return The candidate playlists.
+   */
+  public List<PlaylistInput> candidates(final CompiledFilters filters, final String viewer) {
+    List<PlaylistInput> candidates = new ArrayList<>();
+
+    visit(filters, viewer, candidates::add);
+    return candidates;
+  }
+
+  /**
+   * Tells whether one of the candidates of a playlist search passes the given check. The
+   * candidates are checked in list order and the lookup stops at the first one which passes,
+   * without listing the others.
+   *
+   * @param filters The compiled filters of the search command.
+   * @param viewer The username of the user who searches.
+   * @param check The predicate which returns true for the wanted playlists.
+   * @return True if a candidate passes the check.
+   */
+  public boolean anyCandidate(
+      final CompiledFilters filters,
+      final String viewer,
+      final Predicate<? super PlaylistInput> check) {
+    return !visit(filters, viewer, playlist -> !check.test(playlist));
+  }
+
+  /**
+   * Passes the candidates of a playlist search to the visitor in list order, until it returns
+   * false.
+   *
+   * @return False if the visitor stopped the walk.
+   */
+  private boolean visit(
+      final CompiledFilters filters,
+      final String viewer,
+      final Predicate<PlaylistInput> visitor) {
+    List<NavigableMap<Long, PlaylistInput>> postings = new ArrayList<>();
+
+    if (filters.getOwner() != null) {
+      postings.add(lookup(byOwner, filters.getOwner()));
+    }
+
+    CompiledFilters.Range range = filters.getFollowers();
+    if (range != null) {
+      NavigableMap<Long, PlaylistInput> inRange = new TreeMap<>();
+      for (NavigableMap<Long, PlaylistInput> count
+          : followers.subMap(range.min(), true, range.max(), true).values()) {
+        inRange.putAll(count);
+      }
+      postings.add(inRange);
+    }
+
+    NavigableMap<Long, PlaylistInput> ownPrivate = privateByOwner.get(viewer);
+    postings.sort(Comparator.comparingInt(Map::size));
+
+    if (postings.isEmpty()) {
+      return visitMerged(publicPlaylists,
+          ownPrivate == null ? Collections.emptyNavigableMap() : ownPrivate, visitor);
+    }
+
+    for (Map.Entry<Long, PlaylistInput> entry : postings.get(0).entrySet()) {
+      long position = entry.getKey();
+
+      if ((publicPlaylists.containsKey(position)
+              || (ownPrivate != null && ownPrivate.containsKey(position)))
+          && inAllPostings(postings, position)
+          && !visitor.test(entry.getValue())) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Passes the playlists of two disjoint posting lists to the visitor in list order, until it
+   * returns false.
+   */
+  private static boolean visitMerged(
+      final NavigableMap<Long, PlaylistInput> first,
+      final NavigableMap<Long, PlaylistInput> second,
+      final Predicate<PlaylistInput> visitor) {
+    Iterator<Map.Entry<Long, PlaylistInput>> left = first.entrySet().iterator();
+    Iterator<Map.Entry<Long, PlaylistInput>> right = second.entrySet().iterator();
+    Map.Entry<Long, PlaylistInput> nextLeft = left.hasNext() ? left.next() : null;
+    Map.Entry<Long, PlaylistInput> nextRight = right.hasNext() ? right.next() : null;
+
+    while (nextLeft != null || nextRight != null) {
+      Map.Entry<Long, PlaylistInput> head;
+      if (nextRight == null || (nextLeft != null && nextLeft.getKey() < nextRight.getKey())) {
+        head = nextLeft;
+        nextLeft = left.hasNext() ? left.next() : null;
+      } else {
+        head = nextRight;
+        nextRight = right.hasNext() ? right.next() : null;
+      }
+
+      if (!visitor.test(head.getValue())) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private void post(final PlaylistInput playlist, final long position) {
+    boolean visible = StatusEnums.VisibilityEnum.PUBLIC.getName()
+        .equals(playlist.getVisibility());
+    int count = playlist.getFollowers() == null ? 0 : playlist.getFollowers();
+    Posted entry = new Posted(position, visible, playlist.getOwner(), count);
+
+    posted.put(playlist, entry);
+    if (visible) {
+      publicPlaylists.put(position, playlist);
+    } else {
+      privateByOwner.computeIfAbsent(entry.owner(), k -> new TreeMap<>())
+          .put(position, playlist);
+    }
+
+    byOwner.computeIfAbsent(normalize(entry.owner()), k -> new TreeMap<>())
+        .put(position, playlist);
+    followers.computeIfAbsent(count, k -> new TreeMap<>()).put(position, playlist);
+  }
+
+  private static boolean inAllPostings(
+      final List<NavigableMap<Long, PlaylistInput>> postings, final long position) {
+    for (int i = 1; i < postings.size(); i++) {
+      if (!postings.get(i).containsKey(position)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static NavigableMap<Long, PlaylistInput> lookup(
+      final Map<String, NavigableMap<Long, PlaylistInput>> index, final String key) {
+    NavigableMap<Long, PlaylistInput> posting = index.get(normalize(key));
+
+    if (posting == null) {
+      return new TreeMap<>();
+    }
+
+    return posting;
+  }
+
+  private static void unpost(
+      final Map<String, NavigableMap<Long, PlaylistInput>> index,
+      final String key,
+      final long position) {
+    NavigableMap<Long, PlaylistInput> posting = index.get(key);
+
+    if (posting == null) {
+      return;
+    }
+
+    posting.remove(position);
+    if (posting.isEmpty()) {
+      index.remove(key);
+    }
+  }
+
+  private static String normalize(final String key) {
+    if (key == null) {
+      return "";
+    }
+
+    return key.toLowerCase(Locale.ROOT);
+  }
+}
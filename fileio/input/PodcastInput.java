@@ -38,21 +38,15 @@ public final class PodcastInput {
   }
 
   /**
-   * The method iterates through each podcast in the library and checks if its name matches the
-   * provided name. If a match is found, the method returns the podcast and stops searching.
+   * The method looks up the provided name in the podcasts index of the library. If a match is
+   * found, the method returns the podcast.
    *
    * @param name The name of the podcast to be searched for.
    * @return The PodcastInput object that matches the provided name. If no match is found, the
    *     method returns null.
    */
   public static PodcastInput getPodcastByName(final String name) {
-    for (PodcastInput podcast : LibraryInput.getInstance().getPodcasts()) {
-      if (podcast.getName().equals(name)) {
-        return podcast;
-      }
-    }
-
-    return null;
+    return LibraryInput.getInstance().getPodcastByName(name);
   }
 
   /**
@@ -0,0 +1,634 @@
+package fileio.input;
+
+import engine.TopK;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A name-prefix index over one of the library lists, kept as a trie of the lower case names.
+ *
+ * <p>Every node counts the entries of its subtree, so the number of names starting with a prefix
+ * is known as soon as the prefix is walked, and only the matching subtree is visited to collect
+ * them. Entries remember the order in which they were added, which is the order of the indexed
+ * list, so the matches of a prefix can be returned in the order a linear scan would have found
+ * them.
+ *
+ * <p>The names are compared in lower case, so the matches are a superset of a case sensitive
+ * prefix match and the caller still has to check its own filter on them.
+ *
+ * <p>An index can be given a ranking of its entries. Every node then keeps the best ranked
+ * entries of its subtree, so the best matches of a prefix are read from the node of the prefix
+ * instead of ranking its whole subtree. The kept lists are rebuilt lazily from the lists of the
+ * children, and only along the paths which changed: adding or removing an entry drops the lists
+ * on the path of its name, and since the ranking may depend on state the index does not see,
+ * {@link #touch(String)} must be called with the name of an entry whenever its rank changes.
+ *
+ * @param <T> The type of the indexed entries.
+ */
+public final class PrefixIndex<T> {
+  private static final int RANKED = 32;
+  private static final int UNKNOWN = -1;
+
+  private final Function<T, String> keyExtractor;
+  private final Comparator<? super T> ranking;
+  private Node<T> root = new Node<>();
+  private long nextPosition;
+
+  public PrefixIndex(final Function<T, String> keyExtractor) {
+    this(keyExtractor, null);
+  }
+
+  public PrefixIndex(final Function<T, String> keyExtractor, final Comparator<? super T> ranking) {
+    this.keyExtractor = keyExtractor;
+    this.ranking = ranking;
+  }
+
+  private static final class Node<T> {
+    private final Map<Character, Node<T>> children = new HashMap<>();
+    private final List<Entry<T>> entries = new ArrayList<>();
+    private int size;
+    /** The best ranked entries of the subtree, or null if they have to be ranked again. */
+    private List<Entry<T>> best;
+    /** The length of the shortest name of the subtree, or UNKNOWN if it changed. */
+    private int shortest = UNKNOWN;
+  }
+
+  private record Entry<T>(T item, long position) {
+  }
+
+  /**
+   * An entry found by a fuzzy lookup.
+   *
+   * @param item The indexed entry.
+   * @param distance The edit distance between the name of the entry and the looked up term.
+   * @param position The position of the entry in the indexed list.
+   * @param <T> The type of the indexed entries.
+   */
+  public record Match<T>(T item, int distance, long position) {
+  }
+
+  /** A step of the shortest first walk: a node not opened yet, or an entry of an opened node. */
+  private record Step<T>(Node<T> node, int depth, Entry<T> entry, int length, long position) {
+  }
+
+  private record Cursor<T>(List<Entry<T>> entries, int index) {
+    private long position() {
+      return entries.get(index).position();
+    }
+  }
+
+  /**
+   * Drops every entry of the index and indexes the given list from scratch, in list order.
+   *
+   * @param items The list to be indexed. A null list leaves the index empty.
+   */
+  public void rebuild(final Collection<? extends T> items) {
+    root = new Node<>();
+    nextPosition = 0;
+
+    if (items == null) {
+      return;
+    }
+
+    for (T item : items) {
+      add(item);
+    }
+  }
+
+  /**
+   * Indexes an entry appended at the end of the indexed list.
+   *
+   * @param item The entry to be indexed.
+   */
+  public void add(final T item) {
+    String key = normalize(keyExtractor.apply(item));
+    Node<T> node = root;
+
+    node.size++;
+    node.best = null;
+    node.shortest = UNKNOWN;
+    for (int i = 0; i < key.length(); i++) {
+      node = node.children.computeIfAbsent(key.charAt(i), c -> new Node<>());
+      node.size++;
+      node.best = null;
+      node.shortest = UNKNOWN;
+    }
+
+    node.entries.add(new Entry<>(item, nextPosition++));
+  }
+
+  /**
+   * Drops the best ranked entries kept on the path of the given name, after the rank of an entry
+   * with that name changed. The lists are ranked again the next time they are read.
+   *
+   * @param name The name of the entry whose rank changed.
+   */
+  public void touch(final String name) {
+    String key = normalize(name);
+    Node<T> node = root;
+
+    for (int i = 0; node != null; i++) {
+      node.best = null;
+      node = i < key.length() ? node.children.get(key.charAt(i)) : null;
+    }
+  }
+
+  /**
+   * Removes the given entry from the index. The very same object is removed if it is indexed,
+   * otherwise the first equal entry is, mirroring List.remove on the indexed list.
+   *
+   * @param item The entry to be removed.
+   */
+  public void remove(final T item) {
+    removeMatching(item, false);
+  }
+
+  /**
+   * Removes all the entries equal to one of the given ones, mirroring List.removeAll on the
+   * indexed list.
+   *
+   * @param items The entries to be removed.
+   */
+  public void removeAll(final Collection<? extends T> items) {
+    for (T item : items) {
+      removeMatching(item, true);
+    }
+  }
+
+  /**
+   * Removes all the entries matching the given predicate, mirroring List.removeIf on the indexed
+   * list.
+   *
+   * @param filter The predicate which returns true for the entries to be removed.
+   */
+  public void removeIf(final Predicate<? super T> filter) {
+    removeIf(root, filter);
+  }
+
+  /**
+   * Returns the number of indexed entries whose name starts with the given prefix.
+   *
+   * @param prefix The prefix of the names, compared in lower case.
+   * @return The number of matching entries.
+   */
+  public int countWithPrefix(final String prefix) {
+    Node<T> node = find(normalize(prefix));
+
+    if (node == null) {
+      return 0;
+    }
+
+    return node.size;
+  }
+
+  /**
+   * Returns the indexed entries whose name starts with the given prefix, in list order.
+   *
+   * @param prefix The prefix of the names, compared in lower case.
+   * @return The matching entries.
+   */
+  public List<T> withPrefix(final String prefix) {
+    List<Entry<T>> matches = collect(normalize(prefix));
+    List<T> items = new ArrayList<>(matches.size());
+
+    matches.sort(Comparator.comparingLong(Entry::position));
+    for (Entry<T> entry : matches) {
+      items.add(entry.item());
+    }
+
+    return items;
+  }
+
+  /**
+   * Returns the best ranked entries whose name starts with the given prefix. Entries ranked the
+   * same keep their list order.
+   *
+   * @param prefix The prefix of the names, compared in lower case.
+   * @param limit The maximum number of returned entries.
+   * @param ranking The order of the entries, best first.
+   * @param filter The predicate which returns true for the entries which can be returned.
+   * @return At most limit matching entries, best first.
+   */
+  public List<T> top(
+      final String prefix,
+      final int limit,
+      final Comparator<? super T> ranking,
+      final Predicate<? super T> filter) {
+    TopK<T> best = new TopK<>(limit, ranking);
+
+    for (Entry<T> entry : collect(normalize(prefix))) {
+      if (filter.test(entry.item())) {
+        best.offer(entry.item(), entry.position());
+      }
+    }
+
+    return best.toList();
+  }
+
+  /**
+   * Returns the best entries whose name starts with the given prefix, under the ranking of the
+   * index. Entries ranked the same keep their list order. The kept list of the node of the prefix
+   * answers the lookup; the whole subtree is only ranked when the limit is larger than the kept
+   * lists, or when the filter rejects too many of the kept entries.
+   *
+   * @param prefix The prefix of the names, compared in lower case.
+   * @param limit The maximum number of returned entries.
+   * @param filter The predicate which returns true for the entries which can be returned.
+   * @return At most limit matching entries, best first.
+   * @throws IllegalStateException If the index has no ranking.
+   */
+  public List<T> ranked(final String prefix, final int limit, final Predicate<? super T> filter) {
+    if (ranking == null) {
+      throw new IllegalStateException("the index has no ranking");
+    }
+
+    List<T> items = new ArrayList<>();
+    Node<T> start = find(normalize(prefix));
+
+    if (start == null || limit <= 0) {
+      return items;
+    }
+
+    if (limit <= RANKED) {
+      List<Entry<T>> best = best(start);
+
+      for (Entry<T> entry : best) {
+        if (items.size() == limit) {
+          break;
+        }
+        if (filter.test(entry.item())) {
+          items.add(entry.item());
+        }
+      }
+
+      if (items.size() == limit || best.size() == start.size) {
+        return items;
+      }
+    }
+
+    return top(prefix, limit, ranking, filter);
+  }
+
+  /**
+   * Returns the entries with the shortest names among the names starting with the given prefix,
+   * so the names equal to the prefix come first. Names of the same length keep their list order.
+   *
+   * <p>The trie is walked shortest name first: every node knows the length of the shortest name
+   * of its subtree, and a node is only opened once no name left in the queue is shorter. The walk
+   * stops as soon as the limit is filled, so an empty prefix does not visit the whole index.
+   *
+   * @param prefix The prefix of the names, compared in lower case.
+   * @param limit The maximum number of returned entries.
+   * @param filter The predicate which returns true for the entries which can be returned.
+   * @return At most limit matching entries, shortest first.
+   */
+  public List<T> shortest(
+      final String prefix, final int limit, final Predicate<? super T> filter) {
+    List<T> items = new ArrayList<>();
+    String key = normalize(prefix);
+    Node<T> start = find(key);
+
+    if (start == null || limit <= 0 || start.size == 0) {
+      return items;
+    }
+
+    // A node is queued before the entries of its shortest names, so all the names of a length
+    // are queued before the first of them is returned.
+    PriorityQueue<Step<T>> steps = new PriorityQueue<>(
+        Comparator.<Step<T>>comparingInt(Step::length).thenComparingLong(Step::position));
+    steps.add(new Step<>(start, key.length(), null, shortest(start, key.length()), Long.MIN_VALUE));
+    while (!steps.isEmpty() && items.size() < limit) {
+      Step<T> step = steps.poll();
+
+      if (step.entry() != null) {
+        if (filter.test(step.entry().item())) {
+          items.add(step.entry().item());
+        }
+        continue;
+      }
+
+      Node<T> node = step.node();
+      int depth = step.depth() + 1;
+      for (Entry<T> entry : node.entries) {
+        steps.add(new Step<>(null, step.depth(), entry, step.depth(), entry.position()));
+      }
+      for (Node<T> child : node.children.values()) {
+        steps.add(new Step<>(child, depth, null, shortest(child, depth), Long.MIN_VALUE));
+      }
+    }
+
+    return items;
+  }
+
+  /**
+   * Returns the first entries, in list order, whose name starts with the given prefix. The entry
+   * lists of the matching nodes are each in list order, so they are merged lazily and the walk
+   * stops as soon as limit entries pass the filter, without visiting the remaining entries.
+   *
+   * @param prefix The prefix of the names, compared in lower case.
+   * @param limit The maximum number of returned entries.
+   * @param filter The predicate which returns true for the entries which can be returned.
+   * @return At most limit matching entries, in list order.
+   */
+  public List<T> first(final String prefix, final int limit, final Predicate<? super T> filter) {
+    List<T> items = new ArrayList<>();
+    Node<T> start = find(normalize(prefix));
+
+    if (start == null || limit <= 0) {
+      return items;
+    }
+
+    PriorityQueue<Cursor<T>> heads =
+        new PriorityQueue<>(Comparator.comparingLong(Cursor::position));
+    Deque<Node<T>> pending = new ArrayDeque<>();
+    pending.push(start);
+    while (!pending.isEmpty()) {
+      Node<T> node = pending.pop();
+
+      if (!node.entries.isEmpty()) {
+        heads.add(new Cursor<>(node.entries, 0));
+      }
+      for (Node<T> child : node.children.values()) {
+        pending.push(child);
+      }
+    }
+
+    while (!heads.isEmpty() && items.size() < limit) {
+      Cursor<T> head = heads.poll();
+      T item = head.entries().get(head.index()).item();
+
+      if (filter.test(item)) {
+        items.add(item);
+      }
+      if (head.index() + 1 < head.entries().size()) {
+        heads.add(new Cursor<>(head.entries(), head.index() + 1));
+      }
+    }
+
+    return items;
+  }
+
+  /**
+   * Returns the indexed entries whose name is at most maxDistance edits (insertions, deletions or
+   * substitutions of one character) away from the given term, both compared in lower case.
+   *
+   * <p>The trie is walked together with the Levenshtein automaton of the term: the automaton
+   * state reached by a node is the row of the edit distances between the name prefix of the node
+   * and every prefix of the term, computed from the row of its parent. A subtree is skipped as
+   * soon as every distance of the row is above the bound, since a longer name cannot get closer,
+   * so for a small bound only a thin band of the trie around the term is visited.
+   *
+   * @param term The looked up term.
+   * @param maxDistance The largest accepted edit distance.
+   * @return The matching entries with their distances, in no particular order.
+   */
+  public List<Match<T>> withinDistance(final String term, final int maxDistance) {
+    String key = normalize(term);
+    List<Match<T>> matches = new ArrayList<>();
+    int[] row = new int[key.length() + 1];
+
+    for (int i = 0; i < row.length; i++) {
+      row[i] = i;
+    }
+
+    if (maxDistance >= 0) {
+      collectWithin(root, key, row, maxDistance, matches);
+    }
+
+    return matches;
+  }
+
+  private void collectWithin(
+      final Node<T> node,
+      final String key,
+      final int[] row,
+      final int maxDistance,
+      final List<Match<T>> matches) {
+    int distance = row[key.length()];
+
+    if (distance <= maxDistance) {
+      for (Entry<T> entry : node.entries) {
+        matches.add(new Match<>(entry.item(), distance, entry.position()));
+      }
+    }
+
+    for (Map.Entry<Character, Node<T>> child : node.children.entrySet()) {
+      char c = child.getKey();
+      int[] next = new int[row.length];
+      int closest = row[0] + 1;
+
+      next[0] = closest;
+      for (int i = 1; i < row.length; i++) {
+        int substitution = row[i - 1] + (key.charAt(i - 1) == c ? 0 : 1);
+        next[i] = Math.min(Math.min(next[i - 1], row[i]) + 1, substitution);
+        closest = Math.min(closest, next[i]);
+      }
+
+      if (closest <= maxDistance) {
+        collectWithin(child.getValue(), key, next, maxDistance, matches);
+      }
+    }
+  }
+
+  /**
+   * Returns the best ranked entries of the subtree of the node. The lists of the subtrees larger
+   * than the kept lists are kept on their nodes, and are the best entries among the entries of the
+   * node and the lists of its children. Smaller subtrees are ranked whole.
+   */
+  private List<Entry<T>> best(final Node<T> node) {
+    if (node.best != null) {
+      return node.best;
+    }
+
+    TopK<Entry<T>> top = new TopK<>(RANKED, Comparator.comparing(Entry::item, ranking));
+    if (node.size <= RANKED) {
+      for (Entry<T> entry : collect(node)) {
+        top.offer(entry, entry.position());
+      }
+
+      return top.toList();
+    }
+
+    for (Entry<T> entry : node.entries) {
+      top.offer(entry, entry.position());
+    }
+    for (Node<T> child : node.children.values()) {
+      for (Entry<T> entry : best(child)) {
+        top.offer(entry, entry.position());
+      }
+    }
+
+    node.best = top.toList();
+    return node.best;
+  }
+
+  /**
+   * Returns the length of the shortest name of the subtree of a node at the given depth. It is
+   * kept on the node and only computed again after the subtree changed.
+   */
+  private int shortest(final Node<T> node, final int depth) {
+    if (node.shortest != UNKNOWN) {
+      return node.shortest;
+    }
+
+    int length = Integer.MAX_VALUE;
+    if (!node.entries.isEmpty()) {
+      length = depth;
+    } else {
+      for (Node<T> child : node.children.values()) {
+        length = Math.min(length, shortest(child, depth + 1));
+      }
+    }
+
+    node.shortest = length;
+    return length;
+  }
+
+  private void removeMatching(final T item, final boolean all) {
+    String key = normalize(keyExtractor.apply(item));
+    Node<T> node = find(key);
+
+    if (node == null) {
+      return;
+    }
+
+    int removed = 0;
+    Iterator<Entry<T>> iterator = node.entries.iterator();
+    Entry<T> same = null;
+    Entry<T> firstEqual = null;
+
+    while (iterator.hasNext()) {
+      Entry<T> entry = iterator.next();
+
+      if (all) {
+        if (entry.item().equals(item)) {
+          iterator.remove();
+          removed++;
+        }
+      } else if (entry.item() == item) {
+        same = entry;
+        break;
+      } else if (firstEqual == null && entry.item().equals(item)) {
+        firstEqual = entry;
+      }
+    }
+
+    if (!all) {
+      Entry<T> target = same != null ? same : firstEqual;
+      if (target != null && node.entries.remove(target)) {
+        removed = 1;
+      }
+    }
+
+    if (removed > 0) {
+      shrink(key, removed);
+    }
+  }
+
+  /**
+   * Lowers the subtree sizes along the path of the key and drops the nodes left empty.
+   */
+  private void shrink(final String key, final int removed) {
+    Node<T> node = root;
+
+    node.size -= removed;
+    node.best = null;
+    node.shortest = UNKNOWN;
+    for (int i = 0; i < key.length(); i++) {
+      Node<T> child = node.children.get(key.charAt(i));
+      child.size -= removed;
+      child.best = null;
+      child.shortest = UNKNOWN;
+
+      if (child.size == 0) {
+        node.children.remove(key.charAt(i));
+        return;
+      }
+
+      node = child;
+    }
+  }
+
+  private int removeIf(final Node<T> node, final Predicate<? super T> filter) {
+    int removed = 0;
+
+    for (Iterator<Entry<T>> it = node.entries.iterator(); it.hasNext();) {
+      if (filter.test(it.next().item())) {
+        it.remove();
+        removed++;
+      }
+    }
+
+    for (Iterator<Node<T>> it = node.children.values().iterator(); it.hasNext();) {
+      Node<T> child = it.next();
+      removed += removeIf(child, filter);
+
+      if (child.size == 0) {
+        it.remove();
+      }
+    }
+
+    node.size -= removed;
+    if (removed > 0) {
+      node.best = null;
+      node.shortest = UNKNOWN;
+    }
+    return removed;
+  }
+
+  private Node<T> find(final String key) {
+    Node<T> node = root;
+
+    for (int i = 0; i < key.length() && node != null; i++) {
+      node = node.children.get(key.charAt(i));
+    }
+
+    return node;
+  }
+
+  private List<Entry<T>> collect(final String prefix) {
+    Node<T> start = find(prefix);
+
+    if (start == null) {
+      return new ArrayList<>();
+    }
+
+    return collect(start);
+  }
+
+  private List<Entry<T>> collect(final Node<T> start) {
+    List<Entry<T>> matches = new ArrayList<>();
+    Deque<Node<T>> pending = new ArrayDeque<>();
+    pending.push(start);
+    while (!pending.isEmpty()) {
+      Node<T> node = pending.pop();
+
+      matches.addAll(node.entries);
+      for (Node<T> child : node.children.values()) {
+        pending.push(child);
+      }
+    }
+
+    return matches;
+  }
+
+  private static String normalize(final String key) {
+    if (key == null) {
+      return "";
+    }
+
+    return key.toLowerCase(Locale.ROOT);
+  }
+}
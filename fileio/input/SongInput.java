@@ -23,6 +23,24 @@ public final class SongInput {
         likes = 0;
     }
 
+    /**
+     * Creates a copy of the given song with its own like counter. The other fields are shared,
+     * since they are never changed after the library is read.
+     *
+     * @param song The song to be copied.
+     */
+    public SongInput(final SongInput song) {
+        this.name = song.name;
+        this.duration = song.duration;
+        this.album = song.album;
+        this.tags = song.tags;
+        this.lyrics = song.lyrics;
+        this.genre = song.genre;
+        this.releaseYear = song.releaseYear;
+        this.artist = song.artist;
+        this.likes = song.likes;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) {
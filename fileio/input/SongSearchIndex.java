@@ -0,0 +1,235 @@
+package fileio.input;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * An inverted index over the library songs, used to narrow down the songs a search has to check.
+ *
+ * <p>Every song is kept in the posting lists of its tags, of its genre, of its artist and of its
+ * album, and under its release year in a sorted map, so that a "&lt;year" or "&gt;year" filter is
+ * a range scan. The keys are compared in lower case and the year bounds are inclusive, which
+ * makes the returned candidates a superset of the songs matching the filters: the search still
+ * checks every filter on every candidate, the index only skips the songs which cannot match.
+ *
+ * <p>Entries are tracked by identity, in the order in which they were added. Since songs are
+ * only ever appended to the library list, that is also the order of the list, so candidates come
+ * out in the order a linear scan would have visited them.
+ */
+public final class SongSearchIndex {
+  private final Map<SongInput, Long> positions = new IdentityHashMap<>();
+  private final Map<String, NavigableMap<Long, SongInput>> tags = new HashMap<>();
+  private final Map<String, NavigableMap<Long, SongInput>> genres = new HashMap<>();
+  private final Map<String, NavigableMap<Long, SongInput>> artists = new HashMap<>();
+  private final Map<String, NavigableMap<Long, SongInput>> albums = new HashMap<>();
+  private final NavigableMap<Integer, NavigableMap<Long, SongInput>> years = new TreeMap<>();
+  private long nextPosition;
+
+  /**
+   * Drops every entry of the index and indexes the given songs from scratch, in list order.
+   *
+   * @param songs The songs to be indexed. A null list leaves the index empty.
+   */
+  public void rebuild(final Collection<SongInput> songs) {
+    positions.clear();
+    tags.clear();
+    genres.clear();
+    artists.clear();
+    albums.clear();
+    years.clear();
+    nextPosition = 0;
+
+    if (songs == null) {
+      return;
+    }
+
+    for (SongInput song : songs) {
+      add(song);
+    }
+  }
+
+  /**
+   * Indexes a song appended at the end of the library list.
+   *
+   * @param song The song to be indexed.
+   */
+  public void add(final SongInput song) {
+    long position = nextPosition++;
+    positions.put(song, position);
+
+    if (song.getTags() != null) {
+      for (String tag : song.getTags()) {
+        posting(tags, tag).put(position, song);
+      }
+    }
+
+    posting(genres, song.getGenre()).put(position, song);
+    posting(artists, song.getArtist()).put(position, song);
+    posting(albums, song.getAlbum()).put(position, song);
+
+    if (song.getReleaseYear() != null) {
+      years.computeIfAbsent(song.getReleaseYear(), year -> new TreeMap<>()).put(position, song);
+    }
+  }
+
+  /**
+   * Removes exactly the given song object from the index. Songs which are only equal to it are
+   * kept.
+   *
+   * @param song The song to be removed.
+   */
+  public void remove(final SongInput song) {
+    Long position = positions.remove(song);
+
+    if (position == null) {
+      return;
+    }
+
+    if (song.getTags() != null) {
+      for (String tag : song.getTags()) {
+        unpost(tags, tag, position);
+      }
+    }
+
+    unpost(genres, song.getGenre(), position);
+    unpost(artists, song.getArtist(), position);
+    unpost(albums, song.getAlbum(), position);
+
+    if (song.getReleaseYear() != null) {
+      NavigableMap<Long, SongInput> posting = years.get(song.getReleaseYear());
+      if (posting != null) {
+        posting.remove(position);
+        if (posting.isEmpty()) {
+          years.remove(song.getReleaseYear());
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the songs which can match the indexed filters of a song search, in list order. The
+   * name and lyrics filters are not indexed and have to be checked by the search.
+   *
+   * @param filters The compiled filters of the search command.
+   * @return The candidate songs, or null if no indexed filter is set and every song is a
+   *     candidate.
+   */
+  public List<SongInput> candidates(final CompiledFilters filters) {
+    List<NavigableMap<Long, SongInput>> postings = new ArrayList<>();
+
+    for (String tag : filters.getTags()) {
+      postings.add(lookup(tags, tag));
+    }
+
+    addPosting(postings, genres, filters.getGenre());
+    addPosting(postings, artists, filters.getArtist());
+    addPosting(postings, albums, filters.getAlbum());
+
+    CompiledFilters.Range yearRange = filters.getReleaseYear();
+
+    if (postings.isEmpty()) {
+      if (yearRange == null) {
+        return null;
+      }
+
+      return yearRange(yearRange);
+    }
+
+    postings.sort(Comparator.comparingInt(Map::size));
+
+    NavigableMap<Long, SongInput> smallest = postings.get(0);
+    List<SongInput> candidates = new ArrayList<>();
+
+    for (Map.Entry<Long, SongInput> entry : smallest.entrySet()) {
+      if (inAllPostings(postings, entry.getKey())
+          && (yearRange == null || yearRange.contains(entry.getValue().getReleaseYear()))) {
+        candidates.add(entry.getValue());
+      }
+    }
+
+    return candidates;
+  }
+
+  private static boolean inAllPostings(
+      final List<NavigableMap<Long, SongInput>> postings, final long position) {
+    for (int i = 1; i < postings.size(); i++) {
+      if (!postings.get(i).containsKey(position)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static void addPosting(
+      final List<NavigableMap<Long, SongInput>> postings,
+      final Map<String, NavigableMap<Long, SongInput>> index,
+      final String filter) {
+    if (filter != null) {
+      postings.add(lookup(index, filter));
+    }
+  }
+
+  /**
+   * Returns the songs released in the year range, merged back into list order.
+   */
+  private List<SongInput> yearRange(final CompiledFilters.Range range) {
+    NavigableMap<Long, SongInput> merged = new TreeMap<>();
+
+    for (NavigableMap<Long, SongInput> posting
+        : years.subMap(range.min(), true, range.max(), true).values()) {
+      merged.putAll(posting);
+    }
+
+    return new ArrayList<>(merged.values());
+  }
+
+  private static NavigableMap<Long, SongInput> posting(
+      final Map<String, NavigableMap<Long, SongInput>> index, final String key) {
+    return index.computeIfAbsent(normalize(key), k -> new TreeMap<>());
+  }
+
+  private static NavigableMap<Long, SongInput> lookup(
+      final Map<String, NavigableMap<Long, SongInput>> index, final String key) {
+    NavigableMap<Long, SongInput> posting = index.get(normalize(key));
+
+    if (posting == null) {
+      return new TreeMap<>();
+    }
+
+    return posting;
+  }
+
+  private static void unpost(
+      final Map<String, NavigableMap<Long, SongInput>> index,
+      final String key,
+      final long position) {
+    String normalized = normalize(key);
+    NavigableMap<Long, SongInput> posting = index.get(normalized);
+
+    if (posting == null) {
+      return;
+    }
+
+    posting.remove(position);
+    if (posting.isEmpty()) {
+      index.remove(normalized);
+    }
+  }
+
+  private static String normalize(final String key) {
+    if (key == null) {
+      return "";
+    }
+
+    return key.toLowerCase(Locale.ROOT);
+  }
+}
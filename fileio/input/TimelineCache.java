@@ -0,0 +1,114 @@
+package fileio.input;
+
+import java.util.List;
+
+/**
+ * The durations of a playlist: the total duration of its songs and the timeline of the songs in
+ * playlist order.
+ *
+ * <p>A play order is the list of song indexes kept by a player, and every load or shuffle creates
+ * a new one, so the orders are not told apart by identity. An order is the playlist order if its
+ * content is 0, 1, ..., n - 1 for the n songs of the playlist, and all the players which play the
+ * playlist unshuffled share one timeline of it. The last list found to be the playlist order is
+ * remembered, so the same player is not checked again. The timeline of a shuffled order belongs
+ * to the player which shuffled it and is not kept here; a holder of such a timeline can keep it as
+ * long as {@link #version(List)} does not change.
+ *
+ * <p>Adding or removing a song changes the version and drops the shared timeline, which is built
+ * again at its next lookup. The playlist reports every change of its songs, including a new song
+ * list, so the song list must only be changed through the playlist. A direct change of the list is
+ * only noticed if it changes its size.
+ */
+final class TimelineCache {
+  private List<SongInput> songs;
+  private int songCount;
+  private int total;
+  private int version;
+  private DurationTimeline natural;
+  private List<Integer> naturalOrder;
+
+  int total(final List<SongInput> current) {
+    sync(current);
+    return total;
+  }
+
+  int version(final List<SongInput> current) {
+    sync(current);
+    return version;
+  }
+
+  DurationTimeline timeline(final List<SongInput> current, final List<Integer> order) {
+    sync(current);
+
+    if (!isNatural(order)) {
+      return DurationTimeline.of(current, order);
+    }
+    if (natural == null) {
+      natural = DurationTimeline.of(current, order);
+    }
+
+    return natural;
+  }
+
+  /** Records a song appended to the song list. */
+  void added(final List<SongInput> current, final SongInput song) {
+    if (current == songs && current.size() == songCount + 1) {
+      changed();
+      songCount++;
+      total += song.getDuration();
+    }
+  }
+
+  /** Records a song removed from the song list. */
+  void removed(final List<SongInput> current, final SongInput song) {
+    if (current == songs && current.size() == songCount - 1) {
+      changed();
+      songCount--;
+      total -= song.getDuration();
+    }
+  }
+
+  /** Drops everything, for changes of the song list which cannot be followed one by one. */
+  void invalidate() {
+    changed();
+    songs = null;
+  }
+
+  private boolean isNatural(final List<Integer> order) {
+    if (order.size() != songCount) {
+      return false;
+    }
+    if (order == naturalOrder) {
+      return true;
+    }
+
+    for (int i = 0; i < order.size(); i++) {
+      if (order.get(i) != i) {
+        return false;
+      }
+    }
+
+    naturalOrder = order;
+    return true;
+  }
+
+  private void changed() {
+    version++;
+    natural = null;
+    naturalOrder = null;
+  }
+
+  private void sync(final List<SongInput> current) {
+    if (current == songs && current.size() == songCount) {
+      return;
+    }
+
+    changed();
+    songs = current;
+    songCount = current.size();
+    total = 0;
+    for (SongInput song : current) {
+      total += song.getDuration();
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package fileio.input;
+
+import commands.constants.Constants;
+import commands.constants.StatusEnums;
+import engine.TopK;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * A search over every kind of entity of the library at once: songs, podcasts, playlists, albums,
+ * artists and hosts, looked up by name in their prefix indexes.
+ *
+ * <p>The results of all the kinds are merged under one ranking: the names equal to the searched
+ * name (ignoring case) first, then the shortest names, which are the closest to the searched
+ * prefix, then the kinds in the order above, then the library order. A name equal to the prefix
+ * is the shortest name the prefix can match, so each prefix index gives its own best entries with
+ * a shortest first walk which stops after limit entries, and only limit entries of each kind are
+ * merged. An empty name does not walk the whole library.
+ */
+public final class UniversalSearch {
+  private static final Comparator<Ranked> ORDER =
+      Comparator.comparing(Ranked::exact, Comparator.reverseOrder())
+          .thenComparingInt(Ranked::length)
+          .thenComparingInt(Ranked::kind);
+
+  private UniversalSearch() {
+  }
+
+  /**
+   * A result of a universal search.
+   *
+   * @param type The type of the found entity, one of the search types.
+   * @param name The name of the found entity.
+   */
+  public record Hit(String type, String name) {
+  }
+
+  private record Ranked(Hit hit, boolean exact, int length, int kind) {
+  }
+
+  /**
+   * Searches the library for the entities whose name starts with the given prefix. Private
+   * playlists are only found by their owner.
+   *
+   * @param library The searched library.
+   * @param prefix The searched name, compared in lower case. A null name finds every entity.
+   * @param viewer The username of the user who searches.
+   * @param limit The maximum number of results.
+   * @param candidates Told the number of entries the walks of the prefix indexes found, which
+   *     are all the entries merged into the results.
+   * @return At most limit results, best first.
+   */
+  public static List<Hit> search(
+      final LibraryInput library,
+      final String prefix,
+      final String viewer,
+      final int limit,
+      final IntConsumer candidates) {
+    String name = prefix == null ? "" : prefix;
+    TopK<Ranked> best = new TopK<>(limit, ORDER);
+    int kind = 0;
+    int found = 0;
+
+    found += offer(best, kind++, Constants.SONG, library.getSongNames(),
+        SongInput::getName, name, limit, song -> true);
+    found += offer(best, kind++, Constants.PODCAST, library.getPodcastNames(),
+        PodcastInput::getName, name, limit, podcast -> true);
+    found += offer(best, kind++, Constants.PLAYLIST, library.getPlaylistNames(),
+        PlaylistInput::getName, name, limit, playlist -> isVisible(playlist, viewer));
+    found += offer(best, kind++, Constants.ALBUM, library.getAlbumNames(),
+        AlbumInput::getName, name, limit, album -> true);
+    found += offer(best, kind++, Constants.ARTIST, library.getArtistNames(),
+        ArtistInput::getUsername, name, limit, artist -> true);
+    found += offer(best, kind, Constants.HOST, library.getHostNames(),
+        HostInput::getUsername, name, limit, host -> true);
+    candidates.accept(found);
+
+    List<Hit> hits = new ArrayList<>();
+    for (Ranked ranked : best.toList()) {
+      hits.add(ranked.hit());
+    }
+
+    return hits;
+  }
+
+  /**
+   * Offers the best entries of one kind. The prefix index returns them shortest first, which is
+   * the order of the common ranking restricted to that kind, so their rank is their tie-break
+   * position.
+   *
+   * @return The number of offered entries.
+   */
+  private static <T> int offer(
+      final TopK<Ranked> best,
+      final int kind,
+      final String type,
+      final PrefixIndex<T> index,
+      final Function<T, String> names,
+      final String prefix,
+      final int limit,
+      final Predicate<? super T> filter) {
+    List<T> found = index.shortest(prefix, limit, filter);
+
+    for (int i = 0; i < found.size(); i++) {
+      String name = names.apply(found.get(i));
+      best.offer(new Ranked(new Hit(type, name), name.equalsIgnoreCase(prefix), name.length(),
+          kind), i);
+    }
+
+    return found.size();
+  }
+
+  private static boolean isVisible(final PlaylistInput playlist, final String viewer) {
+    return playlist.getVisibility().equals(StatusEnums.VisibilityEnum.PUBLIC.getName())
+        || playlist.getOwner().equals(viewer);
+  }
+}
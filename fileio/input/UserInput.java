@@ -3,6 +3,7 @@ package fileio.input;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import commands.jsonReader.Command;
 import commands.player.History;
+import commands.player.PlaybackCursor;
 import commands.player.Player;
 import commands.searchBar.SearchBar;
 import lombok.Getter;
@@ -19,7 +20,9 @@ import java.util.List;
 public final class UserInput extends AccountInput implements BalanceObserver {
 
   @JsonIgnore private SearchBar searchBar;
+  @JsonIgnore private List<String> searchResultTypes;
   @JsonIgnore private Player player;
+  @JsonIgnore private PlaybackCursor playbackCursor;
   @JsonIgnore private List<PlaylistInput> followedPlaylists;
   @JsonIgnore private List<SongInput> likedSongs;
   @JsonIgnore private List<PlaylistInput> createdPlaylists;
@@ -3,139 +3,65 @@ package main;
 import checker.Checker;
 import checker.CheckerConstants;
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import commands.executableCommands.AdBreakCommand;
-import commands.executableCommands.AddAlbumCommand;
-import commands.executableCommands.AddAnnouncementCommand;
-import commands.executableCommands.AddEventCommand;
-import commands.executableCommands.AddMerchCommand;
-import commands.executableCommands.AddPodcastCommand;
-import commands.executableCommands.AddRemoveInPlaylistCommand;
-import commands.executableCommands.AddUserCommand;
-import commands.executableCommands.BackwardCommand;
-import commands.executableCommands.BuyMerchCommand;
-import commands.executableCommands.BuyPremiumCommand;
-import commands.executableCommands.CancelPremiumCommand;
-import commands.executableCommands.ChangePageCommand;
-import commands.executableCommands.CreatePlaylistCommand;
-import commands.executableCommands.DeleteUserCommand;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import commands.executableCommands.CommandDispatcher;
 import commands.executableCommands.EndProgramCommand;
-import commands.executableCommands.FollowPlaylistCommand;
-import commands.executableCommands.ForwardCommand;
-import commands.executableCommands.GetAllUsersCommand;
-import commands.executableCommands.GetNotificationsCommand;
-import commands.executableCommands.GetOnlineUsersCommand;
-import commands.executableCommands.GetTop5AlbumsCommand;
-import commands.executableCommands.GetTop5ArtistsCommand;
-import commands.executableCommands.GetTop5PlaylistsCommand;
-import commands.executableCommands.GetTop5SongsCommand;
-import commands.executableCommands.LikeCommand;
-import commands.executableCommands.LoadCommand;
-import commands.executableCommands.LoadRecommendationsCommand;
-import commands.executableCommands.NextCommand;
-import commands.executableCommands.NextPageCommand;
-import commands.executableCommands.PlayPauseCommand;
-import commands.executableCommands.PrevCommand;
-import commands.executableCommands.PreviousPageCommand;
-import commands.executableCommands.PrintCurrentPageCommand;
-import commands.executableCommands.RemoveAlbumCommand;
-import commands.executableCommands.RemoveAnnouncementCommand;
-import commands.executableCommands.RemoveEventCommand;
-import commands.executableCommands.RemovePodcastCommand;
-import commands.executableCommands.RepeatCommand;
-import commands.executableCommands.SearchCommand;
-import commands.executableCommands.SeeMerchCommand;
-import commands.executableCommands.SelectCommand;
-import commands.executableCommands.ShowAlbumsCommand;
-import commands.executableCommands.ShowPlaylistsCommand;
-import commands.executableCommands.ShowPodcastsCommand;
-import commands.executableCommands.ShowPreferredSongsCommand;
-import commands.executableCommands.ShuffleCommand;
-import commands.executableCommands.StatusCommand;
-import commands.executableCommands.SubscribeCommand;
-import commands.executableCommands.SwitchConnectionStatusCommand;
-import commands.executableCommands.SwitchVisibilityCommand;
-import commands.executableCommands.UpdateRecommendationsCommand;
-import commands.executableCommands.WrappedCommand;
 import commands.jsonReader.BaseOutput;
 import commands.jsonReader.Command;
-import commands.player.Player;
+import commands.player.PlaybackClock;
+import engine.EngineContext;
+import engine.SearchCache;
+import fileio.input.BaseCatalog;
 import fileio.input.LibraryInput;
+import fileio.input.LyricsIndex;
 import fileio.input.UserInput;
+import metrics.CountingOutputStream;
 import monetization.MonetizationFactory;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
-
-import static commands.constants.CommandsConstants.ADD_ALBUM;
-import static commands.constants.CommandsConstants.ADD_ANNOUNCEMENT;
-import static commands.constants.CommandsConstants.ADD_EVENT;
-import static commands.constants.CommandsConstants.ADD_MERCH;
-import static commands.constants.CommandsConstants.ADD_PODCAST;
-import static commands.constants.CommandsConstants.ADD_REMOVE_IN_PLAYLIST;
-import static commands.constants.CommandsConstants.ADD_USER;
-import static commands.constants.CommandsConstants.AD_BREAK;
-import static commands.constants.CommandsConstants.BACKWARD;
-import static commands.constants.CommandsConstants.BUY_MERCH;
-import static commands.constants.CommandsConstants.BUY_PREMIUM;
-import static commands.constants.CommandsConstants.CANCEL_PREMIUM;
-import static commands.constants.CommandsConstants.CHANGE_PAGE;
-import static commands.constants.CommandsConstants.CREATE_PLAYLIST;
-import static commands.constants.CommandsConstants.DELETE_USER;
-import static commands.constants.CommandsConstants.FOLLOW;
-import static commands.constants.CommandsConstants.FORWARD;
-import static commands.constants.CommandsConstants.GET_ALL_USERS;
-import static commands.constants.CommandsConstants.GET_NOTIFICATIONS;
-import static commands.constants.CommandsConstants.GET_ONLINE_USERS;
-import static commands.constants.CommandsConstants.GET_TOP_5_ALBUMS;
-import static commands.constants.CommandsConstants.GET_TOP_5_ARTISTS;
-import static commands.constants.CommandsConstants.GET_TOP_5_PLAYLISTS;
-import static commands.constants.CommandsConstants.GET_TOP_5_SONGS;
-import static commands.constants.CommandsConstants.LIKE;
-import static commands.constants.CommandsConstants.LOAD;
-import static commands.constants.CommandsConstants.LOAD_RECOMMENDATIONS;
-import static commands.constants.CommandsConstants.NEXT;
-import static commands.constants.CommandsConstants.NEXT_PAGE;
-import static commands.constants.CommandsConstants.PLAY_PAUSE;
-import static commands.constants.CommandsConstants.PREV;
-import static commands.constants.CommandsConstants.PREVIOUS_PAGE;
-import static commands.constants.CommandsConstants.PRINT_CURRENT_PAGE;
-import static commands.constants.CommandsConstants.REMOVE_ALBUM;
-import static commands.constants.CommandsConstants.REMOVE_ANNOUNCEMENT;
-import static commands.constants.CommandsConstants.REMOVE_EVENT;
-import static commands.constants.CommandsConstants.REMOVE_PODCAST;
-import static commands.constants.CommandsConstants.REPEAT;
-import static commands.constants.CommandsConstants.SEARCH;
-import static commands.constants.CommandsConstants.SEE_MERCH;
-import static commands.constants.CommandsConstants.SELECT;
-import static commands.constants.CommandsConstants.SHOW_ALBUMS;
-import static commands.constants.CommandsConstants.SHOW_PLAYLISTS;
-import static commands.constants.CommandsConstants.SHOW_PODCASTS;
-import static commands.constants.CommandsConstants.SHOW_PREFERRED_SONGS;
-import static commands.constants.CommandsConstants.SHUFFLE;
-import static commands.constants.CommandsConstants.STATUS;
-import static commands.constants.CommandsConstants.SUBSCRIBE;
-import static commands.constants.CommandsConstants.SWITCH_CONNECTION_STATUS;
-import static commands.constants.CommandsConstants.SWITCH_VISIBILITY;
-import static commands.constants.CommandsConstants.UPDATE_RECOMMENDATIONS;
-import static commands.constants.CommandsConstants.WRAPPED;
-import static commands.player.TimestampTrack.updateAudioTrackbar;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * The entry point to this homework. It runs the checker that tests your implentation.
  */
 public final class Main {
     static final String LIBRARY_PATH = CheckerConstants.TESTS_PATH + "library/library.json";
+    /**
+     * Writes the outputs without indentation when the "compactOutput" system property is true.
+     * The checker compares the pretty printed form, so this is meant for long production runs.
+     */
+    static final boolean COMPACT_OUTPUT = Boolean.getBoolean("compactOutput");
+    /**
+     * The directory the metrics of every input are written to, given by the "metricsDir" system
+     * property. The metrics are always recorded, but only written if the property is set.
+     */
+    static final String METRICS_DIR = System.getProperty("metricsDir");
+    /**
+     * When positive, the metrics file is also rewritten every that many commands, given by the
+     * "metricsSnapshotInterval" system property.
+     */
+    static final int METRICS_SNAPSHOT_INTERVAL = Integer.getInteger("metricsSnapshotInterval", 0);
+    private static final int PERCENT = 100;
+
+    private static BaseCatalog baseCatalog;
+    private static File baseCatalogFile;
 
     /**
      * for coding style
@@ -163,6 +89,11 @@ public final class Main {
         }
         Files.createDirectories(path);
 
+        // every input is replayed in its own engine context, so the inputs can run in parallel
+        ExecutorService pool =
+                Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        List<Future<Void>> runs = new ArrayList<>();
+
         for (File file : Objects.requireNonNull(directory.listFiles())) {
             if (file.getName().startsWith("library")) {
                 continue;
@@ -172,10 +103,29 @@ public final class Main {
             File out = new File(filepath);
             boolean isCreated = out.createNewFile();
             if (isCreated) {
-                action(file.getName(), filepath);
+                runs.add(pool.submit(() -> {
+                    action(file.getName(), filepath);
+                    return null;
+                }));
             }
         }
 
+        try {
+            for (Future<Void> run : runs) {
+                run.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
         Checker.calculateScore();
     }
 
@@ -186,136 +136,141 @@ public final class Main {
      */
     public static void action(final String filePathInput, final String filePathOutput)
             throws IOException {
+        action(new File(CheckerConstants.TESTS_PATH + filePathInput), new File(LIBRARY_PATH),
+                filePathOutput);
+    }
+
+    /**
+     * Replays a command file against the given library, outside the checker directories.
+     *
+     * @param commandsFile   the file of the commands
+     * @param libraryFile    the library.json the commands run on
+     * @param filePathOutput for output file
+     * @throws IOException in case of exceptions to reading / writing
+     */
+    public static void action(final File commandsFile, final File libraryFile,
+                              final String filePathOutput) throws IOException {
+        String filePathInput = commandsFile.getName();
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
-        LibraryInput library = objectMapper.readValue(new File(LIBRARY_PATH), LibraryInput.class);
-        LibraryInput.setInstance(library);
+        BaseCatalog catalog = getBaseCatalog(objectMapper, libraryFile);
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
 
-        ArrayNode outputs = objectMapper.createArrayNode();
+        ObjectWriter objectWriter = COMPACT_OUTPUT
+                ? objectMapper.writer()
+                : objectMapper.writerWithDefaultPrettyPrinter();
+        objectWriter = objectWriter.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
 
-        List<Command> commands =
-                objectMapper.readValue(
-                        new File(CheckerConstants.TESTS_PATH + filePathInput),
-                        new TypeReference<List<Command>>() {
+        Command lastCommand = null;
+        long executed = 0;
 
-                        });
+        // the commands are pulled one by one from the parser and executed right away, and every
+        // output is written as soon as it is produced, so the memory used does not grow with the
+        // length of the input or of the output
+        try (EngineContext context = EngineContext.open();
+             MappingIterator<Command> commands = objectMapper.readerFor(Command.class)
+                .readValues(commandsFile);
+             CountingOutputStream outputStream =
+                     new CountingOutputStream(new FileOutputStream(filePathOutput));
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+             SequenceWriter outputs = objectWriter.writeValuesAsArray(generator)) {
+            LibraryInput.setInstance(catalog.newLibrary());
 
-        for (Command command : commands) {
-            BaseOutput output = null;
-            JsonNode outputJson = null;
-            UserInput user = LibraryInput.getInstance().getUserByName(command.getUsername());
+            while (commands.hasNext()) {
+                Command command = commands.next();
+                lastCommand = command;
 
-            assert user != null;
+                long writtenBefore = outputStream.getCount() + generator.getOutputBuffered();
+                outputs.write(executeCommand(command));
+                long written = outputStream.getCount() + generator.getOutputBuffered();
+                context.getMetrics().forCommand(command.getCommand())
+                        .recordOutput(written - writtenBefore);
 
-            for (UserInput userLibrary : LibraryInput.getInstance().getUsers()) {
-                Player player = userLibrary.getPlayer();
-                if (userLibrary.isOnline()) {
-                    updateAudioTrackbar(command, player, userLibrary.getUsername());
-                } else {
-                    player.setLastCommandTimestamp(command.getTimestamp());
+                executed++;
+                if (METRICS_SNAPSHOT_INTERVAL > 0 && executed % METRICS_SNAPSHOT_INTERVAL == 0) {
+                    writeMetrics(context, filePathInput);
                 }
             }
-            output =
-                    switch (command.getCommand()) {
-                        case SELECT -> (new SelectCommand()).executeCommand(command);
-                        case SEARCH -> (new SearchCommand()).executeCommand(command);
-                        case LOAD -> (new LoadCommand()).executeCommand(command);
-                        case PLAY_PAUSE -> (new PlayPauseCommand()).executeCommand(command);
-                        case REPEAT -> (new RepeatCommand()).executeCommand(command);
-                        case SHUFFLE -> (new ShuffleCommand()).executeCommand(command);
-                        case FORWARD -> (new ForwardCommand()).executeCommand(command);
-                        case BACKWARD -> (new BackwardCommand()).executeCommand(command);
-                        case LIKE -> (new LikeCommand()).executeCommand(command);
-                        case NEXT -> (new NextCommand()).executeCommand(command);
-                        case PREV -> (new PrevCommand()).executeCommand(command);
-                        case ADD_REMOVE_IN_PLAYLIST -> (new AddRemoveInPlaylistCommand())
-                                .executeCommand(command);
-                        case STATUS -> (new StatusCommand()).executeCommand(command);
-                        case CREATE_PLAYLIST -> (new CreatePlaylistCommand())
-                                .executeCommand(command);
-                        case SWITCH_VISIBILITY -> (new SwitchVisibilityCommand())
-                                .executeCommand(command);
-                        case FOLLOW -> (new FollowPlaylistCommand()).executeCommand(command);
-                        case SHOW_PLAYLISTS -> (new ShowPlaylistsCommand())
-                                .executeCommand(command);
-                        case SHOW_PREFERRED_SONGS -> (new ShowPreferredSongsCommand())
-                                .executeCommand(command);
-                        case GET_TOP_5_SONGS -> (new GetTop5SongsCommand()).executeCommand(command);
-                        case GET_TOP_5_PLAYLISTS -> (new GetTop5PlaylistsCommand())
-                                .executeCommand(command);
-                        case ADD_USER -> (new AddUserCommand()).executeCommand((command));
-                        case DELETE_USER -> (new DeleteUserCommand()).executeCommand((command));
-                        case SWITCH_CONNECTION_STATUS -> (new SwitchConnectionStatusCommand())
-                                .executeCommand(command);
-                        case GET_ONLINE_USERS -> (new GetOnlineUsersCommand())
-                                .executeCommand(command);
-                        case ADD_ALBUM -> (new AddAlbumCommand()).executeCommand(command);
-                        case ADD_MERCH -> (new AddMerchCommand()).executeCommand(command);
-                        case ADD_EVENT -> (new AddEventCommand()).executeCommand(command);
-                        case ADD_PODCAST -> (new AddPodcastCommand()).executeCommand(command);
-                        case ADD_ANNOUNCEMENT -> (new AddAnnouncementCommand())
-                                .executeCommand(command);
-                        case REMOVE_ALBUM -> (new RemoveAlbumCommand()).executeCommand(command);
-                        case REMOVE_EVENT -> (new RemoveEventCommand()).executeCommand(command);
-                        case REMOVE_ANNOUNCEMENT -> (new RemoveAnnouncementCommand())
-                                .executeCommand(command);
-                        case REMOVE_PODCAST -> (new RemovePodcastCommand())
-                                .executeCommand(command);
-                        case SHOW_ALBUMS -> (new ShowAlbumsCommand()).executeCommand(command);
-                        case PRINT_CURRENT_PAGE -> (new PrintCurrentPageCommand())
-                                .executeCommand(command);
-                        case SHOW_PODCASTS -> (new ShowPodcastsCommand()).executeCommand(command);
-                        case GET_ALL_USERS -> (new GetAllUsersCommand()).executeCommand(command);
-                        case CHANGE_PAGE -> (new ChangePageCommand()).executeCommand(command);
-                        case GET_TOP_5_ALBUMS -> (new GetTop5AlbumsCommand())
-                                .executeCommand(command);
-                        case GET_TOP_5_ARTISTS -> (new GetTop5ArtistsCommand())
-                                .executeCommand(command);
-
-
-                        case WRAPPED -> (new WrappedCommand()).executeCommand(command);
-                        case BUY_MERCH -> (new BuyMerchCommand()).executeCommand(command);
-                        case SEE_MERCH -> (new SeeMerchCommand()).executeCommand(command);
-                        case PREVIOUS_PAGE -> (new PreviousPageCommand()).executeCommand(command);
-                        case NEXT_PAGE -> (new NextPageCommand()).executeCommand(command);
-                        case UPDATE_RECOMMENDATIONS -> (new UpdateRecommendationsCommand())
-                                .executeCommand(command);
-                        case LOAD_RECOMMENDATIONS -> (new LoadRecommendationsCommand())
-                                .executeCommand(command);
-                        case SUBSCRIBE -> (new SubscribeCommand()).executeCommand(command);
-                        case GET_NOTIFICATIONS -> (new GetNotificationsCommand())
-                                .executeCommand(command);
-                        case BUY_PREMIUM -> (new BuyPremiumCommand()).executeCommand(command);
-                        case CANCEL_PREMIUM -> (new CancelPremiumCommand())
-                                .executeCommand(command);
-                        case AD_BREAK -> (new AdBreakCommand()).executeCommand(command);
-                        default -> null;
-                    };
-
-            if (output != null) {
-                outputJson = objectMapper.valueToTree(output);
+
+            if (lastCommand != null) {
+                PlaybackClock.syncAllPlayers(lastCommand);
+            }
+
+            for (UserInput user : LibraryInput.getInstance().getUsers().stream()
+                    .filter(UserInput::isPremium).toList()) {
+                MonetizationFactory.createMonetizationStrategy(user.isPremium()).monetize(user);
             }
 
-            outputs.add(outputJson);
+            outputs.write((new EndProgramCommand()).executeCommand(null));
+            writeMetrics(context, filePathInput);
         }
+    }
 
-        for (UserInput user : LibraryInput.getInstance().getUsers().stream()
-                                                        .filter(UserInput::isPremium).toList()) {
-            MonetizationFactory.createMonetizationStrategy(user.isPremium()).monetize(user);
+    /**
+     * Writes the metrics of the run to the metrics directory, if one was given.
+     *
+     * @param context       the engine context of the run
+     * @param filePathInput for input file, which names the metrics file
+     * @throws IOException in case of exceptions to writing
+     */
+    private static void writeMetrics(final EngineContext context, final String filePathInput)
+            throws IOException {
+        if (METRICS_DIR == null) {
+            return;
+        }
+
+        File directory = new File(METRICS_DIR);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("cannot create " + directory);
         }
 
-        BaseOutput endProgramOutput = (new EndProgramCommand()).executeCommand(null);
-        JsonNode outputJson = null;
+        LyricsIndex lyricsIndex = LibraryInput.getInstance().getLyricsIndex();
+        context.getMetrics().setGauge("lyricsIndexBytes", lyricsIndex.estimateMemoryBytes());
+        context.getMetrics().setGauge("lyricsIndexTrigrams", lyricsIndex.getTrigramCount());
 
-        if (endProgramOutput != null) {
-            outputJson = objectMapper.valueToTree(endProgramOutput);
+        SearchCache searchCache = context.getSearchCache();
+        context.getMetrics().setGauge("searchCacheHits", searchCache.getHits());
+        context.getMetrics().setGauge("searchCacheMisses", searchCache.getMisses());
+        context.getMetrics().setGauge("searchCacheHitPercent",
+                Math.round(searchCache.getHitRatio() * PERCENT));
+
+        String name = new File(filePathInput).getName() + ".metrics.json";
+        context.getMetrics().writeSummary(new File(directory, name));
+    }
+
+    /**
+     * Reads the library the first time it is needed. The catalog is shared by all the runs on
+     * the same library; asking for another library replaces it.
+     *
+     * @param objectMapper for reading the library
+     * @param libraryFile  the library.json to read
+     * @return the base catalog
+     * @throws IOException in case of exceptions to reading
+     */
+    private static synchronized BaseCatalog getBaseCatalog(final ObjectMapper objectMapper,
+                                                           final File libraryFile)
+            throws IOException {
+        if (baseCatalog == null || !libraryFile.equals(baseCatalogFile)) {
+            baseCatalog = BaseCatalog.load(objectMapper, libraryFile);
+            baseCatalogFile = libraryFile;
         }
+        return baseCatalog;
+    }
+
+    /**
+     * Brings the players which need it up to the timestamp of the command and executes the
+     * command.
+     *
+     * @param command the command to be executed
+     * @return the output of the command
+     */
+    private static BaseOutput executeCommand(final Command command) {
+        UserInput user = LibraryInput.getInstance().getUserByName(command.getUsername());
 
-        outputs.add(outputJson);
+        PlaybackClock.syncPlayer(user, command);
+        BaseOutput output = CommandDispatcher.dispatch(command);
 
-        ObjectWriter objectWriter = objectMapper.writerWithDefaultPrettyPrinter();
-        objectWriter.writeValue(new File(filePathOutput), outputs);
+        return output;
     }
 }
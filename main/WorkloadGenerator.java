@@ -0,0 +1,381 @@
+package main;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static commands.constants.CommandsConstants.ADD_REMOVE_IN_PLAYLIST;
+import static commands.constants.CommandsConstants.BACKWARD;
+import static commands.constants.CommandsConstants.CREATE_PLAYLIST;
+import static commands.constants.CommandsConstants.FOLLOW;
+import static commands.constants.CommandsConstants.FORWARD;
+import static commands.constants.CommandsConstants.GET_ONLINE_USERS;
+import static commands.constants.CommandsConstants.GET_TOP_5_PLAYLISTS;
+import static commands.constants.CommandsConstants.GET_TOP_5_SONGS;
+import static commands.constants.CommandsConstants.LIKE;
+import static commands.constants.CommandsConstants.LOAD;
+import static commands.constants.CommandsConstants.NEXT;
+import static commands.constants.CommandsConstants.PLAY_PAUSE;
+import static commands.constants.CommandsConstants.PREV;
+import static commands.constants.CommandsConstants.REPEAT;
+import static commands.constants.CommandsConstants.SEARCH;
+import static commands.constants.CommandsConstants.SELECT;
+import static commands.constants.CommandsConstants.SHOW_PLAYLISTS;
+import static commands.constants.CommandsConstants.SHOW_PREFERRED_SONGS;
+import static commands.constants.CommandsConstants.SHUFFLE;
+import static commands.constants.CommandsConstants.STATUS;
+import static commands.constants.CommandsConstants.SWITCH_CONNECTION_STATUS;
+import static commands.constants.CommandsConstants.WRAPPED;
+
+/**
+ * Generates a synthetic library.json and a matching command stream for load tests.
+ *
+ * <p>Usage: {@code WorkloadGenerator <outputDir> [key=value ...]}, with the keys seed, songs,
+ * podcasts, episodes (per podcast), users, commands, zipf (the exponent of the popularity
+ * distribution), churn (the probability that a command is a connection switch) and mix (the
+ * weights of the commands, for example {@code mix=search:30,like:5,next:10}). The output is the
+ * same for the same arguments, so benchmark runs can be reproduced.
+ */
+public final class WorkloadGenerator {
+    private static final String[] GENRES = {"pop", "rock", "jazz", "hip-hop", "electronic",
+        "classical", "metal", "folk", "blues", "reggae"};
+    private static final String[] WORDS = {"love", "night", "heart", "fire", "rain", "dream",
+        "light", "road", "sky", "time", "home", "gold", "wild", "blue", "summer", "shadow"};
+    private static final String[] CITIES = {"Bucharest", "Cluj", "Iasi", "Timisoara", "Brasov"};
+
+    private static final int SONGS_PER_ALBUM = 10;
+    private static final int ALBUMS_PER_ARTIST = 3;
+    private static final int MIN_SONG_DURATION = 90;
+    private static final int SONG_DURATION_SPAN = 240;
+    private static final int MIN_EPISODE_DURATION = 600;
+    private static final int EPISODE_DURATION_SPAN = 3000;
+    private static final int MIN_YEAR = 1960;
+    private static final int YEAR_SPAN = 64;
+    private static final int MIN_AGE = 14;
+    private static final int AGE_SPAN = 60;
+    private static final int TAGS_PER_SONG = 3;
+    private static final int LYRICS_WORDS = 12;
+    private static final int MAX_TIMESTAMP_GAP = 30;
+    private static final int MAX_SKIP = 90;
+    private static final int SEARCH_PREFIX = 6;
+
+    private final Random random;
+    private final Config config;
+    private final ZipfSampler songPopularity;
+    private final ZipfSampler userActivity;
+    private final boolean[] online;
+    private final int[] createdPlaylists;
+    private final String[] mixNames;
+    private final double[] mixCumulative;
+    private int timestamp;
+
+    private WorkloadGenerator(final Config config) {
+        this.config = config;
+        this.random = new Random(config.seed);
+        this.songPopularity = new ZipfSampler(config.songs, config.zipf);
+        this.userActivity = new ZipfSampler(config.users, config.zipf);
+        this.online = new boolean[config.users];
+        this.createdPlaylists = new int[config.users];
+        Arrays.fill(online, true);
+
+        mixNames = config.mix.keySet().toArray(new String[0]);
+        mixCumulative = new double[mixNames.length];
+        double total = 0;
+        for (int i = 0; i < mixNames.length; i++) {
+            total += config.mix.get(mixNames[i]);
+            mixCumulative[i] = total;
+        }
+    }
+
+    /**
+     * @param args the output directory followed by key=value options
+     * @throws IOException in case of exceptions to writing
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: WorkloadGenerator <outputDir> [key=value ...]");
+            return;
+        }
+
+        Config config = Config.parse(Arrays.copyOfRange(args, 1, args.length));
+        File directory = new File(args[0]);
+        File libraryDirectory = new File(directory, "library");
+        if (!libraryDirectory.isDirectory() && !libraryDirectory.mkdirs()) {
+            throw new IOException("cannot create " + libraryDirectory);
+        }
+
+        WorkloadGenerator generator = new WorkloadGenerator(config);
+        JsonFactory factory = new JsonFactory();
+
+        try (JsonGenerator json = factory.createGenerator(
+                new File(libraryDirectory, "library.json"), JsonEncoding.UTF8)) {
+            generator.writeLibrary(json);
+        }
+
+        try (JsonGenerator json = factory.createGenerator(
+                new File(directory, "test_generated_" + config.seed + ".json"),
+                JsonEncoding.UTF8)) {
+            generator.writeCommands(json);
+        }
+    }
+
+    private static String songName(final int song) {
+        return WORDS[song % WORDS.length] + " " + WORDS[(song / WORDS.length) % WORDS.length]
+                + " " + song;
+    }
+
+    private static String userName(final int user) {
+        return "user" + user;
+    }
+
+    private void writeLibrary(final JsonGenerator json) throws IOException {
+        json.writeStartObject();
+
+        json.writeArrayFieldStart("songs");
+        for (int song = 0; song < config.songs; song++) {
+            int album = song / SONGS_PER_ALBUM;
+            json.writeStartObject();
+            json.writeStringField("name", songName(song));
+            json.writeNumberField("duration",
+                    MIN_SONG_DURATION + random.nextInt(SONG_DURATION_SPAN));
+            json.writeStringField("album", "album " + album);
+            json.writeArrayFieldStart("tags");
+            for (int i = 0; i < TAGS_PER_SONG; i++) {
+                json.writeString("#" + WORDS[random.nextInt(WORDS.length)]);
+            }
+            json.writeEndArray();
+            StringBuilder lyrics = new StringBuilder();
+            for (int i = 0; i < LYRICS_WORDS; i++) {
+                lyrics.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            json.writeStringField("lyrics", lyrics.toString().trim());
+            json.writeStringField("genre", GENRES[random.nextInt(GENRES.length)]);
+            json.writeNumberField("releaseYear", MIN_YEAR + random.nextInt(YEAR_SPAN));
+            json.writeStringField("artist", "artist " + album / ALBUMS_PER_ARTIST);
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+
+        json.writeArrayFieldStart("podcasts");
+        for (int podcast = 0; podcast < config.podcasts; podcast++) {
+            json.writeStartObject();
+            json.writeStringField("name", "podcast " + podcast);
+            json.writeStringField("owner", "host " + podcast);
+            json.writeArrayFieldStart("episodes");
+            for (int episode = 0; episode < config.episodes; episode++) {
+                json.writeStartObject();
+                json.writeStringField("name", "episode " + podcast + "." + episode);
+                json.writeNumberField("duration",
+                        MIN_EPISODE_DURATION + random.nextInt(EPISODE_DURATION_SPAN));
+                json.writeStringField("description", WORDS[random.nextInt(WORDS.length)]);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+
+        json.writeArrayFieldStart("users");
+        for (int user = 0; user < config.users; user++) {
+            json.writeStartObject();
+            json.writeStringField("username", userName(user));
+            json.writeNumberField("age", MIN_AGE + random.nextInt(AGE_SPAN));
+            json.writeStringField("city", CITIES[random.nextInt(CITIES.length)]);
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+
+        json.writeEndObject();
+    }
+
+    private void writeCommands(final JsonGenerator json) throws IOException {
+        json.writeStartArray();
+
+        for (int written = 0; written < config.commands; written++) {
+            timestamp += 1 + random.nextInt(MAX_TIMESTAMP_GAP);
+            int user = userActivity.next(random);
+
+            // offline users only come back online, online users go offline now and then
+            if (!online[user] || random.nextDouble() < config.churn) {
+                online[user] = !online[user];
+                startCommand(json, SWITCH_CONNECTION_STATUS, user);
+                json.writeEndObject();
+                continue;
+            }
+
+            writeCommand(json, pickCommand(), user);
+        }
+
+        json.writeEndArray();
+    }
+
+    private String pickCommand() {
+        double point = random.nextDouble() * mixCumulative[mixCumulative.length - 1];
+        int index = Arrays.binarySearch(mixCumulative, point);
+
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        return mixNames[Math.min(index, mixNames.length - 1)];
+    }
+
+    private void startCommand(final JsonGenerator json, final String name, final int user)
+            throws IOException {
+        json.writeStartObject();
+        json.writeStringField("command", name);
+        json.writeStringField("username", userName(user));
+        json.writeNumberField("timestamp", timestamp);
+    }
+
+    private void writeCommand(final JsonGenerator json, final String name, final int user)
+            throws IOException {
+        if (name.equals(LOAD)) {
+            // a load is only meaningful after a search and a select of the same user
+            writeSearch(json, user);
+            timestamp++;
+            startCommand(json, SELECT, user);
+            json.writeNumberField("itemNumber", 1);
+            json.writeEndObject();
+            timestamp++;
+        }
+
+        if (name.equals(SEARCH)) {
+            writeSearch(json, user);
+            return;
+        }
+
+        startCommand(json, name, user);
+        switch (name) {
+            case SELECT -> json.writeNumberField("itemNumber", 1 + random.nextInt(2));
+            case FORWARD, BACKWARD -> json.writeNumberField("duration",
+                    1 + random.nextInt(MAX_SKIP));
+            case SHUFFLE -> json.writeNumberField("seed", random.nextInt(Integer.MAX_VALUE));
+            case CREATE_PLAYLIST -> {
+                createdPlaylists[user]++;
+                json.writeStringField("playlistName",
+                        userName(user) + " playlist " + createdPlaylists[user]);
+            }
+            case ADD_REMOVE_IN_PLAYLIST -> json.writeNumberField("playlistId",
+                    1 + random.nextInt(Math.max(1, createdPlaylists[user])));
+            default -> {
+            }
+        }
+        json.writeEndObject();
+    }
+
+    private void writeSearch(final JsonGenerator json, final int user) throws IOException {
+        String name = songName(songPopularity.next(random));
+
+        startCommand(json, SEARCH, user);
+        json.writeStringField("type", "song");
+        json.writeObjectFieldStart("filters");
+        json.writeStringField("name", name.substring(0, Math.min(SEARCH_PREFIX, name.length())));
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    /**
+     * Samples ranks from a Zipf distribution: rank i (counting from 0) is drawn with a
+     * probability proportional to 1 / (i + 1)^exponent.
+     */
+    private static final class ZipfSampler {
+        private final double[] cumulative;
+
+        private ZipfSampler(final int size, final double exponent) {
+            cumulative = new double[Math.max(1, size)];
+            double total = 0;
+            for (int i = 0; i < cumulative.length; i++) {
+                total += 1.0 / Math.pow(i + 1, exponent);
+                cumulative[i] = total;
+            }
+        }
+
+        private int next(final Random random) {
+            double point = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, point);
+
+            if (index < 0) {
+                index = -index - 1;
+            }
+
+            return Math.min(index, cumulative.length - 1);
+        }
+    }
+
+    /**
+     * The options of the generator, with defaults for a medium sized workload.
+     */
+    private static final class Config {
+        private static final int DEFAULT_SONGS = 100_000;
+        private static final int DEFAULT_PODCASTS = 1_000;
+        private static final int DEFAULT_EPISODES = 10;
+        private static final int DEFAULT_USERS = 10_000;
+        private static final int DEFAULT_COMMANDS = 1_000_000;
+        private static final double DEFAULT_ZIPF = 1.1;
+        private static final double DEFAULT_CHURN = 0.02;
+        private static final String DEFAULT_MIX = SEARCH + ":20," + LOAD + ":12,"
+                + PLAY_PAUSE + ":8," + STATUS + ":10," + NEXT + ":8," + PREV + ":4,"
+                + FORWARD + ":4," + BACKWARD + ":2," + REPEAT + ":2," + SHUFFLE + ":2,"
+                + LIKE + ":8," + CREATE_PLAYLIST + ":2," + ADD_REMOVE_IN_PLAYLIST + ":4,"
+                + FOLLOW + ":1," + SHOW_PLAYLISTS + ":2," + SHOW_PREFERRED_SONGS + ":2,"
+                + GET_TOP_5_SONGS + ":1," + GET_TOP_5_PLAYLISTS + ":1," + GET_ONLINE_USERS + ":1,"
+                + WRAPPED + ":1";
+
+        private long seed = 1;
+        private int songs = DEFAULT_SONGS;
+        private int podcasts = DEFAULT_PODCASTS;
+        private int episodes = DEFAULT_EPISODES;
+        private int users = DEFAULT_USERS;
+        private int commands = DEFAULT_COMMANDS;
+        private double zipf = DEFAULT_ZIPF;
+        private double churn = DEFAULT_CHURN;
+        private Map<String, Double> mix = parseMix(DEFAULT_MIX);
+
+        private static Config parse(final String[] options) {
+            Config config = new Config();
+
+            for (String option : options) {
+                int separator = option.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("expected key=value, got " + option);
+                }
+
+                String key = option.substring(0, separator);
+                String value = option.substring(separator + 1);
+                switch (key) {
+                    case "seed" -> config.seed = Long.parseLong(value);
+                    case "songs" -> config.songs = Integer.parseInt(value);
+                    case "podcasts" -> config.podcasts = Integer.parseInt(value);
+                    case "episodes" -> config.episodes = Integer.parseInt(value);
+                    case "users" -> config.users = Integer.parseInt(value);
+                    case "commands" -> config.commands = Integer.parseInt(value);
+                    case "zipf" -> config.zipf = Double.parseDouble(value);
+                    case "churn" -> config.churn = Double.parseDouble(value);
+                    case "mix" -> config.mix = parseMix(value);
+                    default -> throw new IllegalArgumentException("unknown option " + key);
+                }
+            }
+
+            return config;
+        }
+
+        private static Map<String, Double> parseMix(final String value) {
+            Map<String, Double> mix = new LinkedHashMap<>();
+
+            for (String entry : value.split(",")) {
+                String[] parts = entry.split(":");
+                mix.put(parts[0], Double.parseDouble(parts[1]));
+            }
+
+            return mix;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package metrics;
+
+import lombok.Getter;
+
+/**
+ * The metrics of one command type: how many commands ran, how long they took, how much memory
+ * they allocated and how large their outputs were.
+ */
+@Getter
+public final class CommandMetrics {
+  private final LatencyHistogram latencyNanos = new LatencyHistogram();
+  private long count;
+  private long allocatedBytes;
+  private long outputBytes;
+
+  /**
+   * Records one execution of the command.
+   *
+   * @param latency The time the execution took, in nanoseconds.
+   * @param allocated The bytes allocated by the execution, or 0 if they cannot be measured.
+   */
+  public void recordExecution(final long latency, final long allocated) {
+    count++;
+    latencyNanos.record(latency);
+    allocatedBytes += Math.max(0, allocated);
+  }
+
+  /**
+   * Records the size of the output of one execution of the command.
+   *
+   * @param bytes The number of bytes written for the output.
+   */
+  public void recordOutput(final long bytes) {
+    outputBytes += bytes;
+  }
+}
@@ -0,0 +1,32 @@
+package metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An output stream which counts the bytes that went through it.
+ */
+public final class CountingOutputStream extends FilterOutputStream {
+  private long count;
+
+  public CountingOutputStream(final OutputStream out) {
+    super(out);
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    out.write(b);
+    count++;
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    out.write(b, off, len);
+    count += len;
+  }
+
+  public long getCount() {
+    return count;
+  }
+}
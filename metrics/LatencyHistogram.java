@@ -0,0 +1,90 @@
+package metrics;
+
+/**
+ * A histogram of non-negative values with log-linear buckets, in the style of HdrHistogram.
+ *
+ * <p>Values below 64 have a bucket of their own. Larger values are grouped by the position of
+ * their highest bit and split into SUB_BUCKETS buckets inside every group, so the bucket of a
+ * value is never wider than about 3% of the value. Recording is a shift and an array increment,
+ * which keeps the histogram cheap enough to stay enabled.
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int GROUPS = Long.SIZE - SUB_BUCKET_BITS;
+  private static final int EXACT_LIMIT = 2 * SUB_BUCKETS;
+
+  private final long[] counts = new long[GROUPS * SUB_BUCKETS];
+  private long totalCount;
+  private long max;
+
+  /**
+   * Records one value. Negative values are recorded as zero.
+   *
+   * @param value The value to be recorded.
+   */
+  public void record(final long value) {
+    long recorded = Math.max(0, value);
+
+    counts[bucketOf(recorded)]++;
+    totalCount++;
+    max = Math.max(max, recorded);
+  }
+
+  /**
+   * Returns the value below which the given fraction of the recorded values falls. The result is
+   * the highest value of the bucket that contains the percentile, never above the maximum.
+   *
+   * @param fraction The percentile as a fraction between 0 and 1, for example 0.99 for p99.
+   * @return The value at the percentile, or 0 if nothing was recorded.
+   */
+  public long getValueAtPercentile(final double fraction) {
+    if (totalCount == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(fraction * totalCount));
+    long seen = 0;
+
+    for (int bucket = 0; bucket < counts.length; bucket++) {
+      seen += counts[bucket];
+      if (seen >= rank) {
+        return Math.min(highestValueOf(bucket), max);
+      }
+    }
+
+    return max;
+  }
+
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  private static int bucketOf(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+
+    int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int shift = highestBit - SUB_BUCKET_BITS;
+    int group = shift + 1;
+
+    return group * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+  }
+
+  private static long highestValueOf(final int bucket) {
+    if (bucket < EXACT_LIMIT) {
+      return bucket;
+    }
+
+    int group = bucket / SUB_BUCKETS;
+    int shift = group - 1;
+    long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+
+    return lowest + (1L << shift) - 1;
+  }
+}
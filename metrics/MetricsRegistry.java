@@ -0,0 +1,134 @@
+package metrics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The metrics of all the command types of one run.
+ *
+ * <p>A registry belongs to one engine context and is only used by the thread which replays its
+ * input, so it needs no synchronization. The summary is written as JSON, with the latencies in
+ * nanoseconds.
+ */
+public final class MetricsRegistry {
+  private static final double P50 = 0.5;
+  private static final double P99 = 0.99;
+  private static final double P999 = 0.999;
+
+  private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationBean();
+
+  private final Map<String, CommandMetrics> commands = new LinkedHashMap<>();
+  private final Map<String, Long> gauges = new LinkedHashMap<>();
+
+  /**
+   * Returns the metrics of the command type with the given name, creating them the first time.
+   *
+   * @param name The name of the command type.
+   * @return The metrics of the command type.
+   */
+  public CommandMetrics forCommand(final String name) {
+    return commands.computeIfAbsent(name, key -> new CommandMetrics());
+  }
+
+  /**
+   * Returns the metrics of all the command types recorded so far.
+   *
+   * @return An unmodifiable map from the command names to their metrics, in the order in which
+   *     the command types were first seen.
+   */
+  public Map<String, CommandMetrics> getCommands() {
+    return Collections.unmodifiableMap(commands);
+  }
+
+  /**
+   * Sets the current value of a gauge, such as the size of an index. Gauges are written to the
+   * summary next to the command metrics.
+   *
+   * @param name The name of the gauge.
+   * @param value The current value.
+   */
+  public void setGauge(final String name, final long value) {
+    gauges.put(name, value);
+  }
+
+  /**
+   * Returns the gauges set so far.
+   *
+   * @return An unmodifiable map from the gauge names to their last values.
+   */
+  public Map<String, Long> getGauges() {
+    return Collections.unmodifiableMap(gauges);
+  }
+
+  /**
+   * Returns the number of bytes allocated so far by the current thread.
+   *
+   * @return The allocated bytes, or 0 if the JVM cannot measure them.
+   */
+  public static long allocatedBytes() {
+    if (ALLOCATIONS == null) {
+      return 0;
+    }
+
+    return ALLOCATIONS.getCurrentThreadAllocatedBytes();
+  }
+
+  private static com.sun.management.ThreadMXBean allocationBean() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+    if (bean instanceof com.sun.management.ThreadMXBean allocationBean
+        && allocationBean.isThreadAllocatedMemorySupported()
+        && allocationBean.isThreadAllocatedMemoryEnabled()) {
+      return allocationBean;
+    }
+
+    return null;
+  }
+
+  /**
+   * Writes the summary of the metrics to the given file, replacing its content.
+   *
+   * @param file The file to be written.
+   * @throws IOException in case of exceptions to writing
+   */
+  public void writeSummary(final File file) throws IOException {
+    try (JsonGenerator json =
+        new JsonFactory().createGenerator(file, JsonEncoding.UTF8).useDefaultPrettyPrinter()) {
+      json.writeStartObject();
+
+      for (Map.Entry<String, CommandMetrics> entry : commands.entrySet()) {
+        CommandMetrics metrics = entry.getValue();
+        LatencyHistogram latency = metrics.getLatencyNanos();
+
+        json.writeObjectFieldStart(entry.getKey());
+        json.writeNumberField("count", metrics.getCount());
+        json.writeNumberField("p50", latency.getValueAtPercentile(P50));
+        json.writeNumberField("p99", latency.getValueAtPercentile(P99));
+        json.writeNumberField("p999", latency.getValueAtPercentile(P999));
+        json.writeNumberField("max", latency.getMax());
+        json.writeNumberField("allocatedBytes", metrics.getAllocatedBytes());
+        json.writeNumberField("outputBytes", metrics.getOutputBytes());
+        json.writeEndObject();
+      }
+
+      if (!gauges.isEmpty()) {
+        json.writeObjectFieldStart("gauges");
+        for (Map.Entry<String, Long> gauge : gauges.entrySet()) {
+          json.writeNumberField(gauge.getKey(), gauge.getValue());
+        }
+        json.writeEndObject();
+      }
+
+      json.writeEndObject();
+    }
+  }
+}
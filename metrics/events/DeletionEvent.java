@@ -0,0 +1,27 @@
+package metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Emitted when an account, an album or a podcast is removed together with everything which
+ * depends on it.
+ */
+@Name("globalwaves.Deletion")
+@Label("Deletion Cascade")
+@Category({"Global Waves", "Engine"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public final class DeletionEvent extends Event {
+  @Label("Kind")
+  private String kind;
+
+  @Label("Name")
+  private String name;
+}
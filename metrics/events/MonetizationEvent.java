@@ -0,0 +1,35 @@
+package metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Emitted for the settlement of the listens of one user between the artists.
+ */
+@Name("globalwaves.Monetization")
+@Label("Monetization")
+@Category({"Global Waves", "Engine"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public final class MonetizationEvent extends Event {
+  @Label("Username")
+  private String username;
+
+  @Label("Premium")
+  private boolean premium;
+
+  @Label("Songs")
+  @Description("The number of settled listens")
+  private int songs;
+
+  @Label("Artists")
+  @Description("The number of artists the revenue was split between")
+  private int artists;
+}
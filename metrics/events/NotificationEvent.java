@@ -0,0 +1,26 @@
+package metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Emitted when a notification is sent to the subscribers of an artist, a host or a playlist.
+ */
+@Name("globalwaves.Notification")
+@Label("Notification Fan-out")
+@Category({"Global Waves", "Engine"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public final class NotificationEvent extends Event {
+  @Label("Publisher")
+  private String publisher;
+
+  @Label("Subscribers")
+  private int subscribers;
+}
@@ -0,0 +1,31 @@
+package metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Emitted for every generated recommendation.
+ */
+@Name("globalwaves.Recommendation")
+@Label("Recommendation")
+@Category({"Global Waves", "Engine"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public final class RecommendationEvent extends Event {
+  @Label("Username")
+  private String username;
+
+  @Label("Recommendation Type")
+  private String recommendationType;
+
+  @Label("Updated")
+  @Description("Whether a recommendation was added")
+  private boolean updated;
+}
@@ -0,0 +1,39 @@
+package metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Emitted for every search scan, with the number of scanned candidates and of results.
+ */
+@Name("globalwaves.Search")
+@Label("Search")
+@Category({"Global Waves", "Engine"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public final class SearchEvent extends Event {
+  @Label("Username")
+  private String username;
+
+  @Label("Type")
+  private String type;
+
+  @Label("Candidates")
+  @Description("The number of entries checked by the search after the indexes narrowed them"
+      + " down, 0 for a cached search")
+  private int candidates;
+
+  @Label("Results")
+  private int results;
+
+  @Label("Cached")
+  @Description("Whether the results came from the search cache")
+  private boolean cached;
+}
@@ -0,0 +1,31 @@
+package metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Emitted when the player of a user is brought up to the timestamp of a command.
+ */
+@Name("globalwaves.Trackbar")
+@Label("Trackbar Advancement")
+@Category({"Global Waves", "Engine"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public final class TrackbarEvent extends Event {
+  @Label("Username")
+  private String username;
+
+  @Label("Online")
+  @Description("Whether the trackbar moved or only the last command timestamp was updated")
+  private boolean online;
+
+  @Label("Timestamp")
+  private long timestamp;
+}
@@ -0,0 +1,26 @@
+package metrics.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+/**
+ * Emitted for every Wrapped aggregation of a user, an artist or a host.
+ */
+@Name("globalwaves.Wrapped")
+@Label("Wrapped")
+@Category({"Global Waves", "Engine"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public final class WrappedEvent extends Event {
+  @Label("Username")
+  private String username;
+
+  @Label("Account Type")
+  private String accountType;
+}
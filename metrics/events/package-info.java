@@ -0,0 +1,11 @@
+/**
+ * Java Flight Recorder events emitted at the expensive operations inside the engine: trackbar
+ * advancement, searches, Wrapped, recommendations, monetization, deletion cascades and
+ * notification fan-out.
+ *
+ * <p>All the events are disabled by default, so a replay without a recording only pays for a
+ * check of the enabled flag. They are turned on with a recording setting, for example
+ * {@code -XX:StartFlightRecording:+globalwaves.Search#enabled=true}, or for all of them with a
+ * custom .jfc file which enables the globalwaves events.
+ */
+package metrics.events;
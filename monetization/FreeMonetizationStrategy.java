@@ -4,6 +4,7 @@ import fileio.input.ArtistInput;
 import fileio.input.LibraryInput;
 import fileio.input.SongInput;
 import fileio.input.UserInput;
+import metrics.events.MonetizationEvent;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -23,6 +24,9 @@ public class FreeMonetizationStrategy implements MonetizationStrategy {
      */
     @Override
     public void monetize(final UserInput user) {
+        MonetizationEvent event = new MonetizationEvent();
+        event.begin();
+
         HashMap<String, Double> listensArtists = new HashMap<>();
         List<SongInput> listenedSongs = user.getFreeSongs();
 
@@ -56,6 +60,13 @@ public class FreeMonetizationStrategy implements MonetizationStrategy {
             }
         }
 
+        if (event.shouldCommit()) {
+            event.setUsername(user.getUsername());
+            event.setPremium(false);
+            event.setSongs(listenedSongs.size());
+            event.setArtists(listensArtists.size());
+            event.commit();
+        }
 
         user.setFreeSongs(new ArrayList<>());
     }
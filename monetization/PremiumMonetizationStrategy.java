@@ -4,6 +4,7 @@ import fileio.input.ArtistInput;
 import fileio.input.LibraryInput;
 import fileio.input.SongInput;
 import fileio.input.UserInput;
+import metrics.events.MonetizationEvent;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -27,6 +28,9 @@ public class PremiumMonetizationStrategy implements MonetizationStrategy {
      */
     @Override
     public void monetize(final UserInput user) {
+        MonetizationEvent event = new MonetizationEvent();
+        event.begin();
+
         HashMap<ArtistInput, Double> listensArtists = new HashMap<>();
 
         List<SongInput> listenedSongs = user.getPremiumSongs();
@@ -54,6 +58,14 @@ public class PremiumMonetizationStrategy implements MonetizationStrategy {
             }
         }
 
+        if (event.shouldCommit()) {
+            event.setUsername(user.getUsername());
+            event.setPremium(true);
+            event.setSongs(listenedSongs.size());
+            event.setArtists(listensArtists.size());
+            event.commit();
+        }
+
         user.setPremium(false);
         user.setPremiumSongs(new ArrayList<>());
     }
@@ -0,0 +1,109 @@
+package engine;
+
+import commands.jsonReader.Command;
+import commands.jsonReader.Output;
+import fileio.input.CompiledFilters;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the keys, the versioning and the eviction of the search cache.
+ */
+final class SearchCacheTest {
+  private static final CompiledFilters FILTERS = CompiledFilters.compile(Map.of("name", "a"));
+
+  private static Command search(final String username, final String type) {
+    return new Command("search", username, 0, type, new HashMap<>());
+  }
+
+  private static Output output(final Command command, final String... names) {
+    return new Output(command, "Search returned " + names.length + " results",
+        new ArrayList<>(List.of(names)));
+  }
+
+  @Test
+  void answersAStoredSearchWithANewOutput() {
+    SearchCache cache = new SearchCache(4);
+    Command first = search("alice", "song");
+    Command second = search("bob", "song");
+
+    assertNull(cache.lookup(first, FILTERS, 1));
+    Output stored = output(first, "a1", "a2");
+    cache.store(first, FILTERS, stored);
+
+    Output hit = cache.lookup(second, FILTERS, 1);
+    assertNotNull(hit);
+    assertNotSame(stored, hit);
+    assertEquals(stored.getMessage(), hit.getMessage());
+    assertEquals(List.of("a1", "a2"), hit.getResults());
+
+    hit.getResults().clear();
+    assertEquals(List.of("a1", "a2"), cache.lookup(first, FILTERS, 1).getResults());
+    assertEquals(2, cache.getHits());
+    assertEquals(1, cache.getMisses());
+    assertEquals(2.0 / 3, cache.getHitRatio(), 1e-9);
+  }
+
+  @Test
+  void keysPlaylistSearchesByTheirViewer() {
+    SearchCache cache = new SearchCache(4);
+    Command alice = search("alice", "playlist");
+
+    assertNull(cache.lookup(alice, FILTERS, 1));
+    cache.store(alice, FILTERS, output(alice, "private"));
+
+    assertNotNull(cache.lookup(search("alice", "PLAYLIST"), FILTERS, 1));
+    assertNull(cache.lookup(search("bob", "playlist"), FILTERS, 1));
+    assertNull(cache.lookup(search("alice", "song"), FILTERS, 1));
+  }
+
+  @Test
+  void dropsEverythingWhenTheLibraryChanges() {
+    SearchCache cache = new SearchCache(4);
+    Command command = search("alice", "song");
+
+    assertNull(cache.lookup(command, FILTERS, 1));
+    cache.store(command, FILTERS, output(command, "a1"));
+
+    assertNull(cache.lookup(command, FILTERS, 2));
+    assertNull(cache.lookup(command, FILTERS, 1));
+  }
+
+  @Test
+  void evictsTheLeastRecentlyUsedSearch() {
+    SearchCache cache = new SearchCache(2);
+    Command song = search("alice", "song");
+    Command podcast = search("alice", "podcast");
+    Command album = search("alice", "album");
+
+    cache.lookup(song, FILTERS, 1);
+    cache.store(song, FILTERS, output(song, "s"));
+    cache.store(podcast, FILTERS, output(podcast, "p"));
+    cache.lookup(song, FILTERS, 1);
+    cache.store(album, FILTERS, output(album, "a"));
+
+    assertNotNull(cache.lookup(song, FILTERS, 1));
+    assertNull(cache.lookup(podcast, FILTERS, 1));
+    assertNotNull(cache.lookup(album, FILTERS, 1));
+  }
+
+  @Test
+  void cachesNothingWithoutCapacity() {
+    SearchCache cache = new SearchCache(0);
+    Command command = search("alice", "song");
+
+    cache.store(command, FILTERS, output(command, "a1"));
+
+    assertNull(cache.lookup(command, FILTERS, 1));
+    assertEquals(0, cache.getHitRatio(), 0);
+  }
+}
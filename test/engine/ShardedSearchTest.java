@@ -0,0 +1,69 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the sharded filtering returns exactly the list of a sequential scan.
+ */
+final class ShardedSearchTest {
+  private static final Predicate<Integer> MULTIPLE_OF_THREE = value -> value % 3 == 0;
+
+  private static List<Integer> range(final int size) {
+    List<Integer> items = new ArrayList<>(size);
+
+    for (int i = 0; i < size; i++) {
+      items.add(i);
+    }
+
+    return items;
+  }
+
+  private static List<Integer> scan(final List<Integer> items) {
+    return items.stream().filter(MULTIPLE_OF_THREE).toList();
+  }
+
+  @Test
+  void keepsTheListOrderOfTheShards() {
+    ForkJoinPool pool = new ForkJoinPool(3);
+
+    try {
+      for (int shards = 1; shards <= 8; shards++) {
+        ShardedSearch search = new ShardedSearch(shards, 10, pool);
+
+        for (int size : new int[] {0, 1, 19, 20, 21, 97, 1000}) {
+          List<Integer> items = range(size);
+          assertEquals(scan(items), search.filter(items, MULTIPLE_OF_THREE),
+              shards + " shards of " + size);
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void runsOnTheSharedPoolByDefault() {
+    ShardedSearch search = new ShardedSearch(4, 100, null);
+    List<Integer> items = range(10_000);
+
+    assertEquals(scan(items), search.filter(items, MULTIPLE_OF_THREE));
+  }
+
+  @Test
+  void scansSmallListsOnTheCallingThread() {
+    ShardedSearch search = new ShardedSearch(4, 100, null);
+    Thread caller = Thread.currentThread();
+    List<Thread> threads = new ArrayList<>();
+
+    search.filter(range(199), value -> threads.add(Thread.currentThread()));
+
+    assertEquals(199, threads.stream().filter(thread -> thread == caller).count());
+  }
+}
@@ -0,0 +1,88 @@
+package engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the bounded heap selects the same items as a stable sort truncated to the limit.
+ */
+final class TopKTest {
+  private record Item(String name, int rank) {
+  }
+
+  private static final Comparator<Item> BY_RANK = Comparator.comparingInt(Item::rank);
+
+  @Test
+  void keepsTheOfferOrderOfEqualRanks() {
+    List<Item> items = List.of(new Item("a", 1), new Item("b", 0), new Item("c", 1),
+        new Item("d", 0), new Item("e", 1));
+
+    List<Item> best = TopK.select(items, 3, BY_RANK);
+
+    assertEquals(List.of(items.get(1), items.get(3), items.get(0)), best);
+  }
+
+  @Test
+  void dropsTheLastOfferedOfEqualRanksAtTheLimit() {
+    TopK<Item> best = new TopK<>(2, BY_RANK);
+
+    best.offer(new Item("a", 0));
+    best.offer(new Item("b", 0));
+    best.offer(new Item("c", 0));
+
+    assertEquals(List.of("a", "b"), best.toList().stream().map(Item::name).toList());
+  }
+
+  @Test
+  void ordersEqualRanksByExplicitPosition() {
+    TopK<Item> best = new TopK<>(2, BY_RANK);
+
+    best.offer(new Item("late", 0), 7);
+    best.offer(new Item("early", 0), 2);
+    best.offer(new Item("middle", 0), 5);
+
+    assertEquals(List.of("early", "middle"), best.toList().stream().map(Item::name).toList());
+  }
+
+  @Test
+  void matchesAStableSort() {
+    Random random = new Random(42);
+
+    for (int round = 0; round < 200; round++) {
+      List<Item> items = new ArrayList<>();
+      for (int i = random.nextInt(50); i > 0; i--) {
+        items.add(new Item("item" + items.size(), random.nextInt(5)));
+      }
+      int limit = random.nextInt(10);
+
+      List<Item> sorted = new ArrayList<>(items);
+      sorted.sort(BY_RANK);
+
+      assertEquals(sorted.subList(0, Math.min(limit, sorted.size())),
+          TopK.select(items, limit, BY_RANK));
+    }
+  }
+
+  @Test
+  void isFullOnlyAtTheLimit() {
+    TopK<Item> best = new TopK<>(2, BY_RANK);
+
+    best.offer(new Item("a", 0));
+    assertFalse(best.isFull());
+    best.offer(new Item("b", 0));
+    assertTrue(best.isFull());
+  }
+
+  @Test
+  void keepsNothingWithoutALimit() {
+    assertEquals(List.of(), TopK.select(List.of(new Item("a", 0)), 0, BY_RANK));
+  }
+}
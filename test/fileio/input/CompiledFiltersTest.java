@@ -0,0 +1,100 @@
+package fileio.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that equal filters compile to equal cache keys and that the predicates only drop the
+ * entries which cannot match.
+ */
+final class CompiledFiltersTest {
+  private static SongInput song() {
+    SongInput song = new SongInput();
+    song.setName("Bohemian Rhapsody");
+    song.setGenre("Rock");
+    song.setArtist("Queen");
+    song.setAlbum("A Night at the Opera");
+    song.setReleaseYear(1975);
+    song.setTags(List.of("#Rock", "#classic"));
+    song.setLyrics("Is this the real life? Is this just fantasy?");
+    return song;
+  }
+
+  private static Predicate<SongInput> songs(final Map<String, Object> filters) {
+    return CompiledFilters.compile(filters).songPredicate();
+  }
+
+  @Test
+  void compilesEqualFiltersInAnyOrderToEqualKeys() {
+    Map<String, Object> first = new HashMap<>();
+    first.put("name", "Bo");
+    first.put("tags", List.of("#rock", "#classic"));
+    Map<String, Object> second = new HashMap<>();
+    second.put("tags", List.of("#classic", "#rock"));
+    second.put("name", "Bo");
+
+    CompiledFilters compiled = CompiledFilters.compile(first);
+
+    assertEquals(compiled, CompiledFilters.compile(second));
+    assertEquals(compiled.hashCode(), CompiledFilters.compile(second).hashCode());
+    assertNotEquals(compiled, CompiledFilters.compile(Map.of("name", "Bo")));
+    assertEquals(List.of("#classic", "#rock"), compiled.getTags());
+  }
+
+  @Test
+  void acceptsEverythingWithoutFilters() {
+    assertTrue(CompiledFilters.NONE.isEmpty());
+    assertEquals(CompiledFilters.NONE, CompiledFilters.compile(Map.of()));
+    assertTrue(CompiledFilters.NONE.songPredicate().test(new SongInput()));
+  }
+
+  @Test
+  void readsInclusiveRanges() {
+    assertEquals(new CompiledFilters.Range(Integer.MIN_VALUE, 2000),
+        CompiledFilters.compile(Map.of("releaseYear", "<2000")).getReleaseYear());
+    assertEquals(new CompiledFilters.Range(100, Integer.MAX_VALUE),
+        CompiledFilters.compile(Map.of("followers", "> 100")).getFollowers());
+    assertNull(CompiledFilters.compile(Map.of("releaseYear", "2000")).getReleaseYear());
+    assertNull(CompiledFilters.compile(Map.of("releaseYear", "<year")).getReleaseYear());
+
+    CompiledFilters.Range range = new CompiledFilters.Range(1975, 1980);
+    assertTrue(range.contains(1975));
+    assertTrue(range.contains(1980));
+    assertFalse(range.contains(1981));
+    assertFalse(range.contains(null));
+  }
+
+  @Test
+  void keepsTheSongsWhichCanMatchIgnoringCase() {
+    SongInput song = song();
+
+    assertTrue(songs(Map.of("name", "bohemian")).test(song));
+    assertTrue(songs(Map.of("genre", "rock", "artist", "QUEEN")).test(song));
+    assertTrue(songs(Map.of("album", "a night at the opera")).test(song));
+    assertTrue(songs(Map.of("releaseYear", ">1975")).test(song));
+    assertTrue(songs(Map.of("tags", List.of("#rock"))).test(song));
+    assertTrue(songs(Map.of("lyrics", "REAL LIFE")).test(song));
+  }
+
+  @Test
+  void dropsTheSongsWhichCannotMatch() {
+    SongInput song = song();
+
+    assertFalse(songs(Map.of("name", "rhapsody")).test(song));
+    assertFalse(songs(Map.of("genre", "pop")).test(song));
+    assertFalse(songs(Map.of("releaseYear", "<1974")).test(song));
+    assertFalse(songs(Map.of("tags", List.of("#rock", "#pop"))).test(song));
+    assertFalse(songs(Map.of("lyrics", "caught in a landslide")).test(song));
+    assertFalse(songs(Map.of("genre", "rock")).test(new SongInput()));
+  }
+}
@@ -0,0 +1,112 @@
+package fileio.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the lookups of the Fenwick tree timeline against a walk over the play order.
+ */
+final class DurationTimelineTest {
+  private static SongInput song(final int duration) {
+    SongInput song = new SongInput();
+    song.setName("song" + duration);
+    song.setDuration(duration);
+    return song;
+  }
+
+  /** Walks the order the way the players did before the timeline, song by song. */
+  private static DurationTimeline.Position walk(
+      final List<SongInput> songs, final List<Integer> order, final int time) {
+    int start = 0;
+
+    for (int i = 0; i < order.size(); i++) {
+      int index = order.get(i);
+      if (index < 0 || index >= songs.size()) {
+        return null;
+      }
+
+      int end = start + songs.get(index).getDuration();
+      if (time < end) {
+        return new DurationTimeline.Position(i, start, time - start);
+      }
+      start = end;
+    }
+
+    return null;
+  }
+
+  @Test
+  void locatesTheSongPlayingAtEveryMoment() {
+    List<SongInput> songs = List.of(song(10), song(0), song(5), song(20));
+    List<Integer> order = List.of(2, 0, 1, 3);
+    DurationTimeline timeline = DurationTimeline.of(songs, order);
+
+    assertEquals(4, timeline.size());
+    assertEquals(35, timeline.total());
+    assertEquals(new DurationTimeline.Position(0, 0, 0), timeline.locate(0));
+    assertEquals(new DurationTimeline.Position(0, 0, 4), timeline.locate(4));
+    assertEquals(new DurationTimeline.Position(1, 5, 0), timeline.locate(5));
+    assertEquals(new DurationTimeline.Position(3, 15, 0), timeline.locate(15));
+    assertEquals(new DurationTimeline.Position(3, 15, 19), timeline.locate(34));
+    assertNull(timeline.locate(35));
+  }
+
+  @Test
+  void placesMomentsBeforeTheStartInTheFirstSong() {
+    DurationTimeline timeline = DurationTimeline.of(List.of(song(10)), List.of(0));
+
+    assertEquals(new DurationTimeline.Position(0, 0, -3), timeline.locate(-3));
+  }
+
+  @Test
+  void stopsBeforeTheFirstRemovedSong() {
+    List<SongInput> songs = List.of(song(10), song(5));
+    DurationTimeline timeline = DurationTimeline.of(songs, List.of(1, 2, 0));
+
+    assertEquals(1, timeline.size());
+    assertEquals(5, timeline.total());
+    assertNull(timeline.locate(5));
+  }
+
+  @Test
+  void findsNothingInAnEmptyTimeline() {
+    DurationTimeline timeline = DurationTimeline.of(List.of(), List.of());
+
+    assertEquals(0, timeline.size());
+    assertEquals(0, timeline.total());
+    assertNull(timeline.locate(0));
+  }
+
+  @Test
+  void matchesAWalkOverRandomOrders() {
+    Random random = new Random(7);
+
+    for (int round = 0; round < 200; round++) {
+      List<SongInput> songs = new ArrayList<>();
+      for (int i = random.nextInt(40); i > 0; i--) {
+        songs.add(song(random.nextInt(4) == 0 ? 0 : random.nextInt(100)));
+      }
+
+      List<Integer> order = new ArrayList<>();
+      for (int i = 0; i < songs.size(); i++) {
+        order.add(i);
+      }
+      Collections.shuffle(order, random);
+      if (!order.isEmpty() && random.nextBoolean()) {
+        order.set(random.nextInt(order.size()), songs.size());
+      }
+
+      DurationTimeline timeline = DurationTimeline.of(songs, order);
+      for (int time = 0; time <= timeline.total() + 1; time++) {
+        assertEquals(walk(songs, order, time), timeline.locate(time), "moment " + time);
+      }
+    }
+  }
+}
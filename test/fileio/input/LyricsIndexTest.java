@@ -0,0 +1,143 @@
+package fileio.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the trigram lookups against a scan of the lyrics, while songs are added and removed
+ * often enough for the index to be compacted.
+ */
+final class LyricsIndexTest {
+  private static String randomText(final Random random, final int maxLength) {
+    StringBuilder text = new StringBuilder();
+
+    for (int i = random.nextInt(maxLength + 1); i > 0; i--) {
+      text.append("abAB ".charAt(random.nextInt(5)));
+    }
+
+    return text.toString();
+  }
+
+  private static SongInput song(final String lyrics) {
+    SongInput song = new SongInput();
+    song.setName(lyrics);
+    song.setLyrics(lyrics);
+    return song;
+  }
+
+  private static boolean contains(final SongInput song, final String text) {
+    return song.getLyrics().toLowerCase(Locale.ROOT).contains(text.toLowerCase(Locale.ROOT));
+  }
+
+  /** Applies a random addition or removal to both the list and the index. */
+  private static void mutate(
+      final Random random, final List<SongInput> songs, final LyricsIndex index) {
+    if (!songs.isEmpty() && random.nextInt(3) == 0) {
+      index.remove(songs.remove(random.nextInt(songs.size())));
+    } else {
+      SongInput song = song(randomText(random, 12));
+      songs.add(song);
+      index.add(song);
+    }
+  }
+
+  @Test
+  void narrowsDownToASupersetOfTheMatches() {
+    Random random = new Random(5);
+    List<SongInput> songs = new ArrayList<>();
+    LyricsIndex index = new LyricsIndex();
+
+    for (int step = 0; step < 3000; step++) {
+      mutate(random, songs, index);
+
+      String text = randomText(random, 5);
+      List<SongInput> candidates = index.candidates(text);
+      if (text.length() < 3) {
+        assertNull(candidates);
+        continue;
+      }
+
+      List<SongInput> expected = new ArrayList<>();
+      for (SongInput song : songs) {
+        if (candidates.contains(song)) {
+          expected.add(song);
+        } else {
+          assertFalse(contains(song, text), "missed " + song.getLyrics() + " for " + text);
+        }
+      }
+      assertEquals(expected, candidates, "candidates in list order for " + text);
+    }
+  }
+
+  @Test
+  void findsTheSongsMatchingEveryTerm() {
+    Random random = new Random(6);
+    List<SongInput> songs = new ArrayList<>();
+    LyricsIndex index = new LyricsIndex();
+
+    for (int step = 0; step < 3000; step++) {
+      mutate(random, songs, index);
+
+      List<String> terms = new ArrayList<>();
+      StringBuilder query = new StringBuilder();
+      for (int i = random.nextInt(3); i > 0; i--) {
+        String term = randomText(random, 4).trim();
+        if (term.contains(" ")) {
+          query.append('"').append(term).append("\" ");
+          terms.add(term);
+        } else if (!term.isEmpty()) {
+          query.append(term).append(' ');
+          terms.add(term);
+        }
+      }
+
+      List<SongInput> expected = new ArrayList<>();
+      for (SongInput song : songs) {
+        if (terms.stream().allMatch(term -> contains(song, term))) {
+          expected.add(song);
+        }
+      }
+      assertEquals(expected, index.find(query.toString()), "query " + query);
+    }
+  }
+
+  @Test
+  void keepsTheLiveSongsWhenCompacted() {
+    LyricsIndex index = new LyricsIndex();
+    List<SongInput> songs = new ArrayList<>();
+
+    for (int i = 0; i < 200; i++) {
+      SongInput song = song("verse " + i);
+      songs.add(song);
+      index.add(song);
+    }
+    for (int i = 0; i < 150; i++) {
+      index.remove(songs.remove(0));
+    }
+
+    assertEquals(songs, index.find("verse"));
+    assertEquals(List.of(songs.get(0)), index.find("\"verse 150\""));
+    assertEquals(songs.subList(10, 20), index.candidates("rse 16"));
+  }
+
+  @Test
+  void forgetsTheSongsOfARebuild() {
+    LyricsIndex index = new LyricsIndex();
+    SongInput old = song("yesterday");
+    SongInput current = song("Yellow submarine");
+
+    index.rebuild(List.of(old));
+    index.rebuild(List.of(current));
+
+    assertEquals(List.of(current), index.find("YEL"));
+    assertEquals(List.of(), index.candidates("yesterday"));
+  }
+}
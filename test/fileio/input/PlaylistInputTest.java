@@ -0,0 +1,108 @@
+package fileio.input;
+
+import commands.jsonReader.Command;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks that the durations of a playlist follow the changes of its songs, and that an empty
+ * playlist plays nothing.
+ */
+final class PlaylistInputTest {
+  private static SongInput song(final String name, final int duration) {
+    SongInput song = new SongInput();
+    song.setName(name);
+    song.setDuration(duration);
+    return song;
+  }
+
+  private static PlaylistInput playlist() {
+    Command command = new Command();
+    command.setUsername("owner");
+    command.setPlaylistName("playlist");
+    command.setTimestamp(0);
+
+    return new PlaylistInput(command);
+  }
+
+  @Test
+  void playsNothingWhenEmpty() {
+    PlaylistInput playlist = playlist();
+
+    assertEquals(0, playlist.getSummedDurationsPlaylist());
+    assertNull(playlist.getShuffleCurrentPlayingSong(5, new ArrayList<>()));
+    assertNull(playlist.getShufflePosition(5, new ArrayList<>()));
+    assertEquals(0, playlist.getShufflePlayedSongsTotalDuration(5, new ArrayList<>()));
+  }
+
+  @Test
+  void playsNothingWhenEverySongIsEmpty() {
+    PlaylistInput playlist = playlist();
+    playlist.addSong(song("silence", 0));
+
+    assertNull(playlist.getShuffleCurrentPlayingSong(5, List.of(0)));
+  }
+
+  @Test
+  void wrapsAroundTheTotalDuration() {
+    PlaylistInput playlist = playlist();
+    playlist.addSong(song("a", 10));
+    playlist.addSong(song("b", 20));
+
+    assertEquals("b", playlist.getShuffleCurrentPlayingSong(15, List.of(0, 1)).getName());
+    assertEquals("a", playlist.getShuffleCurrentPlayingSong(35, List.of(0, 1)).getName());
+    assertEquals("a", playlist.getShuffleCurrentPlayingSong(25, List.of(1, 0)).getName());
+    assertEquals(10, playlist.getShufflePlayedSongsTotalDuration(45, List.of(0, 1)));
+  }
+
+  @Test
+  void followsAddedAndRemovedSongs() {
+    PlaylistInput playlist = playlist();
+    SongInput first = song("a", 10);
+    playlist.addSong(first);
+    playlist.addSong(song("b", 20));
+    int version = playlist.getTimelineVersion();
+
+    playlist.addSong(song("c", 5));
+    assertEquals(35, playlist.getSummedDurationsPlaylist());
+    assertNotEquals(version, playlist.getTimelineVersion());
+
+    playlist.removeSong(first);
+    assertEquals(25, playlist.getSummedDurationsPlaylist());
+    assertEquals("c", playlist.getShuffleCurrentPlayingSong(22, List.of(0, 1)).getName());
+
+    playlist.removeSongsIf(song -> song.getName().equals("c"));
+    assertEquals(20, playlist.getSummedDurationsPlaylist());
+  }
+
+  @Test
+  void dropsTheTimelineWhenTheSongsAreReplaced() {
+    PlaylistInput playlist = playlist();
+    playlist.addSong(song("a", 10));
+    playlist.addSong(song("b", 20));
+    List<Integer> order = List.of(0, 1);
+    assertEquals("b", playlist.getShuffleCurrentPlayingSong(15, order).getName());
+
+    playlist.setSongs(new ArrayList<>(List.of(song("c", 5), song("d", 30))));
+
+    assertEquals(35, playlist.getSummedDurationsPlaylist());
+    assertEquals("d", playlist.getShuffleCurrentPlayingSong(15, order).getName());
+  }
+
+  @Test
+  void sharesTheTimelineOfThePlaylistOrder() {
+    PlaylistInput playlist = playlist();
+    playlist.addSong(song("a", 10));
+    playlist.addSong(song("b", 20));
+
+    assertSame(playlist.getShuffleTimeline(new ArrayList<>(List.of(0, 1))),
+        playlist.getShuffleTimeline(new ArrayList<>(List.of(0, 1))));
+  }
+}
@@ -0,0 +1,220 @@
+package fileio.input;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the lookups of the prefix index against a scan of the indexed list, over random names
+ * which share many prefixes.
+ */
+final class PrefixIndexTest {
+  private static final Comparator<Named> BY_LIKES =
+      Comparator.comparingInt(Named::getLikes).reversed();
+  private static final Predicate<Named> EVEN = named -> named.getLikes() % 2 == 0;
+
+  /** An indexed entry, compared by identity like the entities of the library. */
+  private static final class Named {
+    private final String name;
+    private int likes;
+
+    private Named(final String name, final int likes) {
+      this.name = name;
+      this.likes = likes;
+    }
+
+    private String getName() {
+      return name;
+    }
+
+    private int getLikes() {
+      return likes;
+    }
+  }
+
+  private static String randomName(final Random random) {
+    StringBuilder name = new StringBuilder();
+
+    for (int i = random.nextInt(6); i > 0; i--) {
+      name.append("abAB".charAt(random.nextInt(4)));
+    }
+
+    return name.toString();
+  }
+
+  private static String randomPrefix(final Random random) {
+    String name = randomName(random);
+
+    return name.substring(0, Math.min(name.length(), random.nextInt(3)));
+  }
+
+  private static List<Named> scan(
+      final List<Named> items, final String prefix, final Predicate<Named> filter) {
+    List<Named> matches = new ArrayList<>();
+
+    for (Named item : items) {
+      if (item.getName().toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT))
+          && filter.test(item)) {
+        matches.add(item);
+      }
+    }
+
+    return matches;
+  }
+
+  /** The edit distance of two names, by the full dynamic programming table. */
+  private static int distance(final String first, final String second) {
+    String a = first.toLowerCase(Locale.ROOT);
+    String b = second.toLowerCase(Locale.ROOT);
+    int[][] table = new int[a.length() + 1][b.length() + 1];
+
+    for (int i = 0; i <= a.length(); i++) {
+      for (int j = 0; j <= b.length(); j++) {
+        if (i == 0 || j == 0) {
+          table[i][j] = i + j;
+        } else {
+          int substitution = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+          table[i][j] = Math.min(table[i - 1][j - 1] + substitution,
+              Math.min(table[i - 1][j], table[i][j - 1]) + 1);
+        }
+      }
+    }
+
+    return table[a.length()][b.length()];
+  }
+
+  private static List<Named> head(final List<Named> items, final int limit) {
+    return new ArrayList<>(items.subList(0, Math.min(limit, items.size())));
+  }
+
+  /** Applies random additions, removals and rank changes to both the list and the index. */
+  private static void mutate(
+      final Random random, final List<Named> items, final PrefixIndex<Named> index) {
+    int operation = random.nextInt(4);
+
+    if (operation == 0 && !items.isEmpty()) {
+      index.remove(items.remove(random.nextInt(items.size())));
+    } else if (operation == 1 && !items.isEmpty()) {
+      Named item = items.get(random.nextInt(items.size()));
+      item.likes = random.nextInt(10);
+      index.touch(item.getName());
+    } else {
+      Named item = new Named(randomName(random), random.nextInt(10));
+      items.add(item);
+      index.add(item);
+    }
+  }
+
+  @Test
+  void findsThePrefixesOfAScan() {
+    Random random = new Random(1);
+    List<Named> items = new ArrayList<>();
+    PrefixIndex<Named> index = new PrefixIndex<>(Named::getName);
+
+    for (int step = 0; step < 2000; step++) {
+      mutate(random, items, index);
+
+      String prefix = randomPrefix(random);
+      List<Named> expected = scan(items, prefix, named -> true);
+      int limit = random.nextInt(5);
+
+      assertEquals(expected, index.withPrefix(prefix));
+      assertEquals(expected.size(), index.countWithPrefix(prefix));
+      assertEquals(head(scan(items, prefix, EVEN), limit), index.first(prefix, limit, EVEN));
+    }
+  }
+
+  @Test
+  void ranksLikeAStableSortOfAScan() {
+    Random random = new Random(2);
+    List<Named> items = new ArrayList<>();
+    PrefixIndex<Named> index = new PrefixIndex<>(Named::getName, BY_LIKES);
+
+    for (int step = 0; step < 2000; step++) {
+      mutate(random, items, index);
+
+      String prefix = randomPrefix(random);
+      int limit = random.nextInt(40);
+      List<Named> expected = scan(items, prefix, EVEN);
+      expected.sort(BY_LIKES);
+
+      assertEquals(head(expected, limit), index.top(prefix, limit, BY_LIKES, EVEN));
+      assertEquals(head(expected, limit), index.ranked(prefix, limit, EVEN));
+    }
+  }
+
+  @Test
+  void walksTheShortestNamesLikeAStableSortOfAScan() {
+    Random random = new Random(4);
+    List<Named> items = new ArrayList<>();
+    PrefixIndex<Named> index = new PrefixIndex<>(Named::getName, BY_LIKES);
+
+    for (int step = 0; step < 2000; step++) {
+      mutate(random, items, index);
+
+      String prefix = randomPrefix(random);
+      int limit = random.nextInt(6);
+      List<Named> expected = scan(items, prefix, EVEN);
+      expected.sort(Comparator.comparingInt(named -> named.getName().length()));
+
+      assertEquals(head(expected, limit), index.shortest(prefix, limit, EVEN));
+    }
+  }
+
+  @Test
+  void findsTheNamesWithinAnEditDistanceOfAScan() {
+    Random random = new Random(3);
+    List<Named> items = new ArrayList<>();
+    PrefixIndex<Named> index = new PrefixIndex<>(Named::getName);
+
+    for (int step = 0; step < 1000; step++) {
+      mutate(random, items, index);
+
+      String term = randomName(random);
+      int maxDistance = random.nextInt(4) - 1;
+      Map<Named, Integer> expected = new HashMap<>();
+      for (Named item : items) {
+        int distance = distance(item.getName(), term);
+        if (distance <= maxDistance) {
+          expected.put(item, distance);
+        }
+      }
+
+      Map<Named, Integer> found = new HashMap<>();
+      for (PrefixIndex.Match<Named> match : index.withinDistance(term, maxDistance)) {
+        assertNull(found.put(match.item(), match.distance()), "found twice");
+      }
+      assertEquals(expected, found, "term " + term + " within " + maxDistance);
+    }
+  }
+
+  @Test
+  void keepsTheListOrderAfterARebuild() {
+    List<Named> items = List.of(new Named("Beta", 1), new Named("bet", 2), new Named("alpha", 3),
+        new Named("BETA", 4));
+    PrefixIndex<Named> index = new PrefixIndex<>(Named::getName);
+
+    index.rebuild(items);
+
+    assertEquals(List.of(items.get(0), items.get(1), items.get(3)), index.withPrefix("BE"));
+    assertEquals(List.of(), index.withPrefix("gamma"));
+  }
+
+  @Test
+  void refusesToRankWithoutARanking() {
+    PrefixIndex<Named> index = new PrefixIndex<>(Named::getName);
+
+    assertThrows(IllegalStateException.class, () -> index.ranked("", 1, named -> true));
+  }
+}